@@ -123,6 +123,10 @@ export class AppComponent implements OnInit, OnDestroy {
     this.revealInstance = undefined;
   }
 
+  img(src: string, width: number): string {
+      return this.deckSvc.imageUrl(src, width);
+  }
+
   hasEnrichment(enrichment?: DeckEnrichment | null): boolean {
       if (!enrichment) {
           return false;
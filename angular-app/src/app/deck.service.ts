@@ -73,6 +73,11 @@ export class DeckService {
       return this.http.get(`/api/decks/${id}/export/pdf`, {responseType: 'blob'});
   }
 
+  /** A copy of a NASA image resized by the server to about `width` px, instead of the multi-MB original. */
+  imageUrl(src: string, width: number): string {
+      return `/api/img?src=${encodeURIComponent(src)}&w=${width}`;
+  }
+
   apod(date?: string): Observable<ApodResponse> {
     let params = new HttpParams();
     if (date) {
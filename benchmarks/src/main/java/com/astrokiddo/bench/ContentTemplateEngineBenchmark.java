@@ -0,0 +1,62 @@
+package com.astrokiddo.bench;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.templates.ContentTemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-slide template cost. The key visual and further reading slides go through {@code bestImageHref} and
+ * {@code shorten}; the question slide runs the grade-level regex on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentTemplateEngineBenchmark {
+
+    @Param({"3-5", "K"})
+    public String gradeLevel;
+
+    private final ContentTemplateEngine engine = new ContentTemplateEngine();
+    private ImageSearchResponseDto.Item item;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.searchResponse(1).getCollection().getItems().get(0);
+    }
+
+    @Benchmark
+    public Slide keyVisual() {
+        return engine.keyVisualFromImageItem(item);
+    }
+
+    @Benchmark
+    public Slide explanation() {
+        return engine.explanation("nebula", item);
+    }
+
+    @Benchmark
+    public Slide furtherReading() {
+        return engine.furtherReading("nebula", item);
+    }
+
+    @Benchmark
+    public Slide questionForClass() {
+        return engine.questionForClass("nebula", gradeLevel);
+    }
+}
@@ -0,0 +1,127 @@
+package com.astrokiddo.bench;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic inputs shaped like real images-api.nasa.gov search responses: up to 100 items, each with
+ * several keywords, albums, a long description and preview/caption links.
+ */
+public final class Fixtures {
+
+    private static final String[] WORDS = {
+            "nebula", "galaxy", "orbit", "telescope", "spacecraft", "infrared", "hydrogen", "stellar", "dust",
+            "cluster", "mission", "astronaut", "module", "solar", "wind", "crater", "surface", "rover", "plume",
+            "observatory", "Hubble", "Webb", "Chandra", "Artemis", "Apollo", "launch", "pad", "Kennedy", "Goddard"
+    };
+    private static final String[] CENTERS = {"GSFC", "JPL", "KSC", "JSC", "ARC", "MSFC"};
+
+    private Fixtures() {
+    }
+
+    public static ObjectMapper mapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static byte[] searchResponseJson(int items) {
+        ObjectMapper mapper = mapper();
+        Random random = new Random(42);
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode collection = root.putObject("collection");
+        collection.put("version", "1.0");
+        collection.put("href", "https://images-api.nasa.gov/search?q=nebula&media_type=image");
+        ArrayNode itemArray = collection.putArray("items");
+        for (int i = 0; i < items; i++) {
+            String nasaId = "PIA" + (10000 + i);
+            ObjectNode item = itemArray.addObject();
+            item.put("href", "https://images-assets.nasa.gov/image/" + nasaId + "/collection.json");
+            ObjectNode data = item.putArray("data").addObject();
+            data.put("center", CENTERS[random.nextInt(CENTERS.length)]);
+            data.put("title", sentence(random, 4 + random.nextInt(8)));
+            data.put("nasa_id", nasaId);
+            data.put("media_type", "image");
+            data.put("date_created", (1995 + random.nextInt(30)) + "-0" + (1 + random.nextInt(9)) + "-1"
+                    + random.nextInt(10) + "T00:00:00Z");
+            data.put("photographer", "NASA/" + CENTERS[random.nextInt(CENTERS.length)]);
+            data.put("secondary_creator", "ESA/CSA/STScI");
+            String description = sentence(random, 60 + random.nextInt(300));
+            data.put("description", description);
+            data.put("description_508", description.substring(0, Math.min(description.length(), 200)));
+            ArrayNode keywords = data.putArray("keywords");
+            for (int k = 0, n = 3 + random.nextInt(12); k < n; k++) {
+                keywords.add(WORDS[random.nextInt(WORDS.length)]);
+            }
+            data.putArray("album").add("Astronomy_Album_" + random.nextInt(40));
+            data.put("location", "Greenbelt, MD");
+            ArrayNode links = item.putArray("links");
+            for (String size : List.of("thumb", "medium", "orig")) {
+                ObjectNode link = links.addObject();
+                link.put("href", "https://images-assets.nasa.gov/image/" + nasaId + "/" + nasaId + "~" + size + ".jpg");
+                link.put("rel", size.equals("thumb") ? "preview" : "alternate");
+                link.put("render", "image");
+                link.put("width", 100 + random.nextInt(4000));
+                link.put("size", 1000 + random.nextInt(5_000_000));
+            }
+            ObjectNode captions = links.addObject();
+            captions.put("href", "https://images-assets.nasa.gov/image/" + nasaId + "/metadata.json");
+            captions.put("rel", "captions");
+        }
+        collection.putObject("metadata").put("total_hits", 4000 + items);
+        ObjectNode next = collection.putArray("links").addObject();
+        next.put("rel", "next");
+        next.put("prompt", "Next");
+        next.put("href", "https://images-api.nasa.gov/search?q=nebula&media_type=image&page=2");
+        try {
+            return mapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ImageSearchResponseDto searchResponse(int items) {
+        try {
+            return mapper().readValue(searchResponseJson(items), ImageSearchResponseDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static CloudflareAiRecords.EnrichmentResponse enrichment() {
+        return new CloudflareAiRecords.EnrichmentResponse(
+                "Imagine a cloud so big that a thousand Suns could be born inside it!",
+                "A nebula is a giant cloud of gas and dust in space. Gravity pulls parts of it together until they "
+                        + "get hot enough to shine as new stars.",
+                "Nebulae show us how stars, planets and even the atoms in our bodies were made.",
+                "Which instrument would you use to see through the dust, and why?",
+                List.of(new CloudflareAiRecords.VocabItem("nebula", "A cloud of gas and dust in space"),
+                        new CloudflareAiRecords.VocabItem("gravity", "The force that pulls things together"),
+                        new CloudflareAiRecords.VocabItem("infrared", "Light our eyes cannot see, felt as heat")),
+                "Some nebulae are so large that light takes hundreds of years to cross them.",
+                "NASA, ESA, CSA, STScI",
+                new CloudflareAiRecords.Meta("@cf/meta/llama-3-8b-instruct"));
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(i % 17 == 0 ? ". " : " ");
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.append('.').toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.astrokiddo.bench;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.nasa.ImageSearchProjection;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.model.SlideType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of a NASA image search response (what every uncached generation parses), full DTO
+ * binding versus the two projections the client uses (blocking over a buffered small page, streaming
+ * for large ones), and of a generated deck (what every deck response writes). 12 items is the page size
+ * the application requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"12", "100"})
+    public int items;
+
+    private JsonFactory factory;
+    private ObjectReader searchReader;
+    private ObjectWriter deckWriter;
+    private byte[] searchJson;
+    private LessonDeck deck;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Fixtures.mapper();
+        factory = mapper.getFactory();
+        searchReader = mapper.readerFor(ImageSearchResponseDto.class);
+        deckWriter = mapper.writerFor(LessonDeck.class);
+        searchJson = Fixtures.searchResponseJson(items);
+        deck = new LessonDeck("nebula");
+        String text = "A nebula is a giant cloud of gas and dust in space. ".repeat(8);
+        for (SlideType type : SlideType.values()) {
+            deck.addSlide(new Slide(type, "Slide " + type, text,
+                    "https://images-assets.nasa.gov/image/PIA10000/PIA10000~medium.jpg", "NASA"));
+        }
+        deck.setEnrichment(Fixtures.enrichment());
+    }
+
+    @Benchmark
+    public ImageSearchResponseDto readSearchResponse() throws IOException {
+        return searchReader.readValue(searchJson);
+    }
+
+    @Benchmark
+    public ImageSearchResponseDto projectSearchResponse() {
+        ImageSearchProjection projection = new ImageSearchProjection(factory, 12);
+        projection.feed(ByteBuffer.wrap(searchJson));
+        return projection.result();
+    }
+
+    @Benchmark
+    public ImageSearchResponseDto projectBufferedSearchResponse() {
+        return ImageSearchProjection.project(factory, new ByteArrayInputStream(searchJson), 12);
+    }
+
+    @Benchmark
+    public byte[] writeDeck() throws IOException {
+        return deckWriter.writeValueAsBytes(deck);
+    }
+}
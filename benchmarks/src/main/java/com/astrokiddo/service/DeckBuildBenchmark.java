@@ -0,0 +1,55 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.bench.Fixtures;
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.model.LessonDeck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code LessonGeneratorService.assembleDeck} on a full 100-item search response, without and with AI
+ * enrichment (the latter includes {@code applyEnrichment}). Freezing the result is serialization and is
+ * covered by {@code JsonBenchmark}. Lives in the service package because {@code assembleDeck} is
+ * package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBuildBenchmark {
+
+    private LessonGeneratorService generator;
+    private ImageSearchResponseDto images;
+    private CloudflareAiRecords.EnrichmentResponse enrichment;
+
+    @Setup
+    public void setUp() {
+        // assembleDeck touches none of the reactive collaborators
+        generator = new LessonGeneratorService(null, null, null, new TopicPopularity(), null, null);
+        images = Fixtures.searchResponse(100);
+        enrichment = Fixtures.enrichment();
+    }
+
+    @Benchmark
+    public LessonDeck templateOnly() {
+        return generator.assembleDeck("nebula", "3-5", images, null);
+    }
+
+    @Benchmark
+    public LessonDeck enriched() {
+        return generator.assembleDeck("nebula", "3-5", images, enrichment);
+    }
+}
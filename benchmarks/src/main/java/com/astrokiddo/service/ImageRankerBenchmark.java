@@ -0,0 +1,48 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.bench.Fixtures;
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ImageRanker.rank} picking three images from a 12-item page (the default projection size) and
+ * from a full 100-item response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageRankerBenchmark {
+
+    @Param({"12", "100"})
+    private int items;
+
+    private ImageRanker ranker;
+    private List<ImageSearchResponseDto.Item> candidates;
+
+    @Setup
+    public void setUp() {
+        ranker = new ImageRanker();
+        candidates = Fixtures.searchResponse(items).getCollection().getItems();
+    }
+
+    @Benchmark
+    public List<ImageSearchResponseDto.Item> rank() {
+        return ranker.rank("Hubble nebula", candidates, 3);
+    }
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Runs the full offline load test on one box: stub upstreams, the application pointed at them, and the
+# load driver. Extra arguments are passed to the driver, e.g. ./run.sh --concurrency 1,8,32 --duration 30s
+# Stub behaviour is set through STUB_ARGS, e.g. STUB_ARGS="--ai-latency lognormal:2s:8s --nasa-error-rate 0.02"
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+STUB_PORT=${STUB_PORT:-9999}
+APP_PORT=${APP_PORT:-8091}
+RESULTS=${RESULTS:-loadtest/target/results-$(date +%Y%m%d-%H%M%S).csv}
+
+mvn -B -q -DskipTests package
+mvn -B -q -f loadtest/pom.xml package
+
+pids=()
+cleanup() { kill "${pids[@]}" 2>/dev/null || true; }
+trap cleanup EXIT
+
+java -cp loadtest/target/loadtest.jar com.astrokiddo.loadtest.StubServer --port "$STUB_PORT" ${STUB_ARGS:-} \
+  > loadtest/target/stub.log 2>&1 &
+pids+=($!)
+wait_for() {
+  for _ in $(seq 1 60); do
+    curl -sf "$1" > /dev/null && return 0
+    sleep 1
+  done
+  echo "Timed out waiting for $1" >&2
+  exit 1
+}
+wait_for "http://127.0.0.1:$STUB_PORT/stats"
+
+SERVER_PORT=$APP_PORT NASA_API_KEY=loadtest CF_ACCOUNT_ID=loadtest CF_API_TOKEN=loadtest \
+  APOD_BASE_URL=http://127.0.0.1:$STUB_PORT/apod \
+  IMAGES_BASE_URL=http://127.0.0.1:$STUB_PORT \
+  CF_AI_BASE_URL=http://127.0.0.1:$STUB_PORT \
+  java ${APP_JAVA_OPTS:-} -jar target/astrokiddo-0.1.0-exec.jar --logging.level.com.astrokiddo=INFO \
+  --logging.level.com.astrokiddo.config.WebClientConfig=WARN > loadtest/target/app.log 2>&1 &
+pids+=($!)
+
+wait_for "http://127.0.0.1:$APP_PORT/readyz"
+
+java -cp loadtest/target/loadtest.jar com.astrokiddo.loadtest.LoadDriver \
+  --target "http://127.0.0.1:$APP_PORT" --out "$RESULTS" "$@"
+echo "Upstream calls: $(curl -s "http://127.0.0.1:$STUB_PORT/stats")"
+echo "Results written to $RESULTS"
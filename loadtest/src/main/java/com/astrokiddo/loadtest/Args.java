@@ -0,0 +1,65 @@
+package com.astrokiddo.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Minimal {@code --name=value} / {@code --name value} command-line parsing. */
+final class Args {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Args(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                values.put(arg.substring(2), "true");
+            }
+        }
+    }
+
+    String get(String name, String def) {
+        return values.getOrDefault(name, def);
+    }
+
+    int getInt(String name, int def) {
+        return Integer.parseInt(get(name, String.valueOf(def)));
+    }
+
+    double getDouble(String name, double def) {
+        return Double.parseDouble(get(name, String.valueOf(def)));
+    }
+
+    Duration getDuration(String name, String def) {
+        return parseDuration(get(name, def));
+    }
+
+    List<String> getList(String name, String def) {
+        return Arrays.stream(get(name, def).split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    /** Parses {@code 250ms}, {@code 30s}, {@code 2m} or a bare number of milliseconds. */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofMillis((long) (Double.parseDouble(v.substring(0, v.length() - 1)) * 1000));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMillis((long) (Double.parseDouble(v.substring(0, v.length() - 1)) * 60_000));
+        }
+        return Duration.ofMillis(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,54 @@
+package com.astrokiddo.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response delay distribution for a stand-in endpoint:
+ * <ul>
+ *   <li>{@code fixed:<d>}</li>
+ *   <li>{@code uniform:<min>:<max>}</li>
+ *   <li>{@code lognormal:<median>:<p99>} - long-tailed, closest to real upstream behaviour</li>
+ * </ul>
+ * Durations use the {@link Args#parseDuration} syntax.
+ */
+final class Latency {
+
+    private static final double Z_99 = 2.326;
+
+    private final String spec;
+    private final String kind;
+    private final double a;
+    private final double b;
+
+    private Latency(String spec, String kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    static Latency parse(String spec) {
+        String[] parts = spec.split(":");
+        double first = parts.length > 1 ? Args.parseDuration(parts[1]).toMillis() : 0;
+        double second = parts.length > 2 ? Args.parseDuration(parts[2]).toMillis() : first;
+        return switch (parts[0]) {
+            case "fixed", "uniform" -> new Latency(spec, parts[0], first, second);
+            case "lognormal" -> new Latency(spec, parts[0], first, Math.log(Math.max(second, first + 1) / Math.max(first, 1)) / Z_99);
+            default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+        };
+    }
+
+    long sampleMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (kind) {
+            case "uniform" -> (long) (a + random.nextDouble() * Math.max(0, b - a));
+            case "lognormal" -> (long) (a * Math.exp(b * random.nextGaussian()));
+            default -> (long) a;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,224 @@
+package com.astrokiddo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load driver. For every scenario and concurrency step it keeps {@code c} requests in flight
+ * for {@code --warmup + --duration}, discards the warm-up samples and reports throughput and latency
+ * percentiles. Scenarios:
+ * <ul>
+ *   <li>{@code generate} - {@code POST /api/decks/generate}, topics drawn from a pool of {@code --topics}</li>
+ *   <li>{@code get} - {@code GET /api/decks/{id}} over {@code --seed-decks} previously generated decks</li>
+ *   <li>{@code apod} - {@code GET /api/apod} for a random day among the last {@code --apod-days}</li>
+ * </ul>
+ */
+public final class LoadDriver {
+
+    private static final Pattern DECK_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String target;
+    private final Duration timeout;
+    private final int topics;
+    private final int apodDays;
+    private final List<String> deckIds = new ArrayList<>();
+
+    private LoadDriver(Args args) {
+        this.target = args.get("target", "http://127.0.0.1:8091");
+        this.timeout = args.getDuration("timeout", "60s");
+        this.topics = args.getInt("topics", 200);
+        this.apodDays = args.getInt("apod-days", 365);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = new Args(argv);
+        LoadDriver driver = new LoadDriver(args);
+        List<String> scenarios = args.getList("scenarios", "generate,get,apod");
+        int[] steps = args.getList("concurrency", "1,4,16,64").stream().mapToInt(Integer::parseInt).toArray();
+        Duration warmup = args.getDuration("warmup", "5s");
+        Duration duration = args.getDuration("duration", "20s");
+
+        List<Result> results = new ArrayList<>();
+        System.out.println(Result.HEADER);
+        for (String scenario : scenarios) {
+            if (scenario.equals("get")) {
+                // seed right before the run: decks from an earlier generate run may already be evicted
+                driver.seedDecks(args.getInt("seed-decks", 20));
+            }
+            for (int concurrency : steps) {
+                Result result = driver.run(scenario, concurrency, warmup, duration);
+                results.add(result);
+                System.out.println(result.row());
+            }
+        }
+        String out = args.get("out", null);
+        if (out != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(out)))) {
+                writer.println("scenario,concurrency,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,max_ms");
+                results.forEach(r -> writer.println(r.csv()));
+            }
+        }
+    }
+
+    private void seedDecks(int count) throws IOException, InterruptedException {
+        deckIds.clear();
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(generate(), HttpResponse.BodyHandlers.ofString());
+            Matcher m = DECK_ID.matcher(response.body());
+            if (response.statusCode() == 200 && m.find()) {
+                deckIds.add(m.group(1));
+            }
+        }
+        if (deckIds.isEmpty()) {
+            throw new IllegalStateException("Could not seed any deck from " + target);
+        }
+    }
+
+    private Result run(String scenario, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        Supplier<HttpRequest> requests = switch (scenario) {
+            case "generate" -> this::generate;
+            case "get" -> this::getDeck;
+            case "apod" -> this::apod;
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long until = measureFrom + duration.toNanos();
+        Worker[] workers = new Worker[concurrency];
+        Thread[] threads = new Thread[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(requests, measureFrom, until);
+            threads[i] = new Thread(workers[i], "load-" + scenario + "-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Result.of(scenario, concurrency, duration, workers);
+    }
+
+    private HttpRequest generate() {
+        String topic = "topic " + ThreadLocalRandom.current().nextInt(topics);
+        return HttpRequest.newBuilder(URI.create(target + "/api/decks/generate"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"topic\":\"" + topic + "\",\"gradeLevel\":\"3-5\"}"))
+                .build();
+    }
+
+    private HttpRequest getDeck() {
+        String id = deckIds.get(ThreadLocalRandom.current().nextInt(deckIds.size()));
+        return HttpRequest.newBuilder(URI.create(target + "/api/decks/" + id)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest apod() {
+        LocalDate date = LocalDate.now().minusDays(1 + ThreadLocalRandom.current().nextInt(apodDays));
+        return HttpRequest.newBuilder(URI.create(target + "/api/apod?date=" + date)).timeout(timeout).GET().build();
+    }
+
+    private final class Worker implements Runnable {
+        private final Supplier<HttpRequest> requests;
+        private final long measureFrom;
+        private final long until;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        private Worker(Supplier<HttpRequest> requests, long measureFrom, long until) {
+            this.requests = requests;
+            this.measureFrom = measureFrom;
+            this.until = until;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < until) {
+                long started = System.nanoTime();
+                boolean ok;
+                try {
+                    HttpResponse<Void> response = client.send(requests.get(), HttpResponse.BodyHandlers.discarding());
+                    ok = response.statusCode() < 400;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long ended = System.nanoTime();
+                if (started < measureFrom || ended > until) {
+                    continue;
+                }
+                if (!ok) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = ended - started;
+            }
+        }
+    }
+
+    private record Result(String scenario, int concurrency, int requests, int errors, double throughput,
+                          double p50, double p90, double p99, double max) {
+
+        static final String HEADER = String.format(Locale.ROOT, "%-10s %6s %9s %7s %10s %9s %9s %9s %9s",
+                "scenario", "conc", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+        static Result of(String scenario, int concurrency, Duration duration, Worker[] workers) {
+            int total = 0;
+            int errors = 0;
+            for (Worker w : workers) {
+                total += w.count;
+                errors += w.errors;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Worker w : workers) {
+                System.arraycopy(w.latencies, 0, all, offset, w.count);
+                offset += w.count;
+            }
+            Arrays.sort(all);
+            return new Result(scenario, concurrency, total, errors, total / (duration.toNanos() / 1e9),
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, rank)] / 1e6;
+        }
+
+        String row() {
+            return String.format(Locale.ROOT, "%-10s %6d %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f",
+                    scenario, concurrency, requests, errors, throughput, p50, p90, p99, max);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    scenario, concurrency, requests, errors, throughput, p50, p90, p99, max);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.astrokiddo.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the three upstreams AstroKiddo calls, so load tests run without network access:
+ * <ul>
+ *   <li>{@code GET /search} - images-api.nasa.gov search, honouring {@code page_size}</li>
+ *   <li>{@code GET /apod} - APOD by {@code date} or {@code start_date}/{@code end_date}</li>
+ *   <li>{@code POST /client/v4/accounts/{id}/ai/run/...} - Workers AI, plain JSON or SSE when {@code stream=true}</li>
+ * </ul>
+ * Point the application at it with {@code IMAGES_BASE_URL=http://host:port},
+ * {@code APOD_BASE_URL=http://host:port/apod} and {@code CF_AI_BASE_URL=http://host:port}.
+ */
+public final class StubServer {
+
+    private final Latency nasaLatency;
+    private final Latency aiLatency;
+    private final double nasaErrorRate;
+    private final double aiErrorRate;
+    private final int searchItems;
+    private final int descriptionWords;
+    private final int explanationWords;
+    private final Map<String, LongAdder> counters = new HashMap<>();
+
+    private StubServer(Args args) {
+        this.nasaLatency = Latency.parse(args.get("nasa-latency", "lognormal:80ms:400ms"));
+        this.aiLatency = Latency.parse(args.get("ai-latency", "lognormal:1500ms:5000ms"));
+        this.nasaErrorRate = args.getDouble("nasa-error-rate", 0.0);
+        this.aiErrorRate = args.getDouble("ai-error-rate", 0.0);
+        this.searchItems = args.getInt("search-items", 100);
+        this.descriptionWords = args.getInt("description-words", 120);
+        this.explanationWords = args.getInt("explanation-words", 250);
+        for (String name : new String[]{"search", "apod", "apod-range", "ai", "errors"}) {
+            counters.put(name, new LongAdder());
+        }
+    }
+
+    public static void main(String[] argv) throws IOException {
+        Args args = new Args(argv);
+        StubServer stub = new StubServer(args);
+        int port = args.getInt("port", 9999);
+        HttpServer server = HttpServer.create(new InetSocketAddress(args.get("host", "127.0.0.1"), port), 1024);
+        // handlers sleep to simulate latency, so every in-flight request needs its own thread
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/search", stub::search);
+        server.createContext("/apod", stub::apod);
+        server.createContext("/client/v4/", stub::ai);
+        server.createContext("/stats", stub::stats);
+        server.start();
+        System.out.printf("Stub listening on %d: nasa-latency=%s ai-latency=%s nasa-error-rate=%s ai-error-rate=%s search-items=%d%n",
+                port, stub.nasaLatency, stub.aiLatency, stub.nasaErrorRate, stub.aiErrorRate, stub.searchItems);
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        counters.get("search").increment();
+        if (delayOrFail(exchange, nasaLatency, nasaErrorRate)) {
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        String q = query.getOrDefault("q", "space");
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int pageSize = Math.min(searchItems, Integer.parseInt(query.getOrDefault("page_size", String.valueOf(searchItems))));
+        StringBuilder sb = new StringBuilder(pageSize * (descriptionWords * 8 + 1200));
+        sb.append("{\"collection\":{\"version\":\"1.0\",\"href\":\"https://images-api.nasa.gov/search?q=")
+                .append(escape(q)).append("\",\"items\":[");
+        for (int i = 0; i < pageSize; i++) {
+            String id = "STUB" + page + "_" + i;
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"href\":\"https://images-assets.nasa.gov/image/").append(id).append("/collection.json\",")
+                    .append("\"data\":[{\"center\":\"JPL\",\"title\":\"").append(escape(q)).append(" image ").append(i)
+                    .append("\",\"nasa_id\":\"").append(id).append("\",\"media_type\":\"image\",")
+                    .append("\"date_created\":\"20").append(10 + i % 15).append("-0").append(1 + i % 9).append("-01T00:00:00Z\",")
+                    .append("\"description\":\"").append(words(descriptionWords)).append("\",")
+                    .append("\"keywords\":[\"").append(escape(q)).append("\",\"planet\",\"mission\",\"telescope\"],")
+                    .append("\"album\":[\"Stub_Album\"],\"photographer\":\"NASA/JPL-Caltech\"}],")
+                    .append("\"links\":[");
+            for (String size : new String[]{"thumb", "medium", "orig"}) {
+                sb.append("{\"href\":\"https://images-assets.nasa.gov/image/").append(id).append('/').append(id)
+                        .append('~').append(size).append(".jpg\",\"rel\":\"").append(size.equals("thumb") ? "preview" : "alternate")
+                        .append("\",\"render\":\"image\"},");
+            }
+            sb.append("{\"href\":\"https://images-assets.nasa.gov/image/").append(id).append("/metadata.json\",\"rel\":\"captions\"}]}");
+        }
+        sb.append("],\"metadata\":{\"total_hits\":").append(searchItems * 10).append("},\"links\":[]}}");
+        send(exchange, 200, "application/json", sb.toString());
+    }
+
+    private void apod(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        boolean range = query.containsKey("start_date");
+        counters.get(range ? "apod-range" : "apod").increment();
+        if (delayOrFail(exchange, nasaLatency, nasaErrorRate)) {
+            return;
+        }
+        if (!range) {
+            send(exchange, 200, "application/json", apodJson(query.getOrDefault("date", LocalDate.now().toString())));
+            return;
+        }
+        LocalDate start = LocalDate.parse(query.get("start_date"));
+        LocalDate end = LocalDate.parse(query.getOrDefault("end_date", LocalDate.now().toString()));
+        StringBuilder sb = new StringBuilder("[");
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(apodJson(d.toString()));
+        }
+        send(exchange, 200, "application/json", sb.append(']').toString());
+    }
+
+    private void ai(HttpExchange exchange) throws IOException {
+        counters.get("ai").increment();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (delayOrFail(exchange, aiLatency, aiErrorRate)) {
+            return;
+        }
+        String response = "{\"hook\":\"Look up! Tonight's sky hides a story.\","
+                + "\"simple_explanation\":\"" + words(60) + "\","
+                + "\"why_it_matters\":\"" + words(30) + "\","
+                + "\"class_question\":\"What would you measure first, and why?\","
+                + "\"vocabulary\":[{\"term\":\"orbit\",\"definition\":\"The curved path of an object around a star or planet\"},"
+                + "{\"term\":\"gravity\",\"definition\":\"The force that pulls objects toward each other\"}],"
+                + "\"fun_fact\":\"" + words(20) + "\",\"attribution\":\"NASA\",\"_meta\":{\"model\":\"stub\"}}";
+        if (!body.replace(" ", "").contains("\"stream\":true")) {
+            send(exchange, 200, "application/json",
+                    "{\"result\":{\"response\":" + response + "},\"success\":true,\"errors\":[],\"messages\":[]}");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < response.length(); i += 8) {
+                String token = response.substring(i, Math.min(response.length(), i + 8));
+                out.write(("data: {\"response\":\"" + escape(token) + "\"}\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(5);
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder("{");
+        counters.forEach((name, count) -> sb.append(sb.length() > 1 ? "," : "").append('"').append(name).append("\":").append(count.sum()));
+        send(exchange, 200, "application/json", sb.append('}').toString());
+    }
+
+    private boolean delayOrFail(HttpExchange exchange, Latency latency, double errorRate) throws IOException {
+        sleep(latency.sampleMillis());
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            counters.get("errors").increment();
+            send(exchange, 503, "application/json",
+                    "{\"success\":false,\"errors\":[{\"code\":\"503\",\"message\":\"stub failure\"}],\"messages\":[]}");
+            return true;
+        }
+        return false;
+    }
+
+    private String apodJson(String date) {
+        return "{\"date\":\"" + escape(date) + "\",\"title\":\"Stub APOD " + escape(date) + "\","
+                + "\"explanation\":\"" + words(explanationWords) + "\",\"media_type\":\"image\","
+                + "\"url\":\"https://apod.nasa.gov/apod/image/stub_" + escape(date) + ".jpg\","
+                + "\"hdurl\":\"https://apod.nasa.gov/apod/image/stub_" + escape(date) + "_hd.jpg\","
+                + "\"service_version\":\"v1\"}";
+    }
+
+    private static String words(int count) {
+        String[] vocabulary = {"star", "nebula", "orbit", "planet", "light", "dust", "galaxy", "telescope", "comet", "moon"};
+        StringBuilder sb = new StringBuilder(count * 7);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "" : " ").append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return sb.append('.').toString();
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
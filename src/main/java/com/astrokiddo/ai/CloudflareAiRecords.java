@@ -3,6 +3,7 @@ package com.astrokiddo.ai;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -119,4 +120,7 @@ public class CloudflareAiRecords {
             @JsonProperty("message") String message
     ) {
     }
+
+    public record EnrichmentField(String name, JsonNode value) {
+    }
 }
@@ -1,41 +1,184 @@
 package com.astrokiddo.ai;
 
 import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.resilience.UpstreamGuard;
+import com.astrokiddo.resilience.UpstreamGuards;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class CloudflareAiService {
 
     private static final Logger log = LoggerFactory.getLogger(CloudflareAiService.class);
 
+    static final String PROMPT_VERSION = "v1";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient client;
     private final CloudflareAiProperties properties;
+    private final EnrichmentCache enrichmentCache;
+    private final ObjectMapper objectMapper;
+    private final UpstreamGuard guard;
+    private final PipelineMetrics metrics;
 
     public CloudflareAiService(WebClient cloudflareAiWebClient,
-                               CloudflareAiProperties properties) {
+                               CloudflareAiProperties properties,
+                               EnrichmentCache enrichmentCache,
+                               ObjectMapper objectMapper,
+                               UpstreamGuards guards,
+                               PipelineMetrics metrics) {
         this.client = cloudflareAiWebClient;
         this.properties = properties;
+        this.enrichmentCache = enrichmentCache;
+        this.objectMapper = objectMapper;
+        this.guard = guards.ai();
+        this.metrics = metrics;
     }
 
     public Mono<CloudflareAiRecords.EnrichmentResponse> enrich(String topic, String gradeLevel) {
         if (!properties.isEnabled() || !properties.isConfigured()) {
             return Mono.empty();
         }
-        CloudflareAiRequest request = buildRequest(topic, gradeLevel);
+        String cacheKey = enrichmentCache.key(topic, gradeLevel);
+        return metrics.timed("ai.enrich", Mono.defer(() -> Mono.justOrEmpty(enrichmentCache.get(cacheKey)))
+                .doOnNext(hit -> log.debug("Enrichment cache hit for {}", cacheKey))
+                .switchIfEmpty(Mono.defer(() -> (properties.isStreaming()
+                        ? streamModel(topic, gradeLevel).collectList().map(this::validatedCounted)
+                        : callModel(topic, gradeLevel))
+                        .doOnNext(response -> enrichmentCache.put(cacheKey, response)))));
+    }
+
+    public Flux<CloudflareAiRecords.EnrichmentField> enrichFields(String topic, String gradeLevel) {
+        if (!properties.isEnabled() || !properties.isConfigured()) {
+            return Flux.empty();
+        }
+        if (!properties.isStreaming()) {
+            return enrich(topic, gradeLevel).flatMapIterable(this::fields);
+        }
+        String cacheKey = enrichmentCache.key(topic, gradeLevel);
+        return Flux.defer(() -> {
+            Optional<CloudflareAiRecords.EnrichmentResponse> cached = enrichmentCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return Flux.fromIterable(fields(cached.get()));
+            }
+            List<CloudflareAiRecords.EnrichmentField> received = new ArrayList<>();
+            return streamModel(topic, gradeLevel)
+                    .doOnNext(received::add)
+                    .doOnComplete(() -> {
+                        try {
+                            enrichmentCache.put(cacheKey, validatedCounted(received));
+                        } catch (RuntimeException ex) {
+                            log.warn("Streamed enrichment for {} failed validation: {}", cacheKey, ex.getMessage());
+                        }
+                    });
+        });
+    }
+
+    public CloudflareAiRecords.EnrichmentResponse partial(List<CloudflareAiRecords.EnrichmentField> fields) {
+        ObjectNode node = objectMapper.createObjectNode();
+        fields.forEach(f -> node.set(f.name(), f.value()));
+        try {
+            return objectMapper.treeToValue(node, CloudflareAiRecords.EnrichmentResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Enrichment fields do not match the response schema", e);
+        }
+    }
+
+    public CloudflareAiRecords.EnrichmentResponse validated(List<CloudflareAiRecords.EnrichmentField> fields) {
+        return CloudflareAiValidationUtil.validateOrThrow(partial(fields));
+    }
+
+    private CloudflareAiRecords.EnrichmentResponse validatedCounted(List<CloudflareAiRecords.EnrichmentField> fields) {
+        try {
+            return validated(fields);
+        } catch (RuntimeException ex) {
+            countValidationFailure(ex);
+            throw ex;
+        }
+    }
+
+    private void countValidationFailure(Throwable ex) {
+        if (ex instanceof ConstraintViolationException violations && !violations.getConstraintViolations().isEmpty()) {
+            String field = "unknown";
+            for (Path.Node node : violations.getConstraintViolations().iterator().next().getPropertyPath()) {
+                if (node.getName() != null) {
+                    field = node.getName();
+                }
+            }
+            metrics.validationFailure(field);
+        } else if (ex instanceof IllegalArgumentException) {
+            metrics.validationFailure("schema");
+        }
+    }
+
+    private List<CloudflareAiRecords.EnrichmentField> fields(CloudflareAiRecords.EnrichmentResponse response) {
+        List<CloudflareAiRecords.EnrichmentField> fields = new ArrayList<>();
+        JsonNode tree = objectMapper.valueToTree(response);
+        for (Map.Entry<String, JsonNode> e : tree.properties()) {
+            fields.add(new CloudflareAiRecords.EnrichmentField(e.getKey(), e.getValue()));
+        }
+        return fields;
+    }
+
+    private Mono<CloudflareAiRecords.EnrichmentResponse> callModel(String topic, String gradeLevel) {
+        CloudflareAiRequest request = buildRequest(topic, gradeLevel, null);
         log.info("Request: {}", request);
+        return metrics.timed("ai.model", guard.protect(modelRequest()
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(CloudflareAiRecords.CfAiEnvelope.class)))
+                .map(CloudflareAiValidationUtil::validateOrThrow)
+                .doOnError(ConstraintViolationException.class, this::countValidationFailure)
+                .retryWhen(Retry.backoff(1, Duration.ofMillis(250))
+                        .maxBackoff(Duration.ofSeconds(1))
+                        .jitter(0.2)
+                        .filter(this::isTransient))
+                .map(env -> env.result().response())
+                .doOnError(ex -> log.warn("Cloudflare AI call failed: {}", ex.getMessage()));
+    }
+
+    private Flux<CloudflareAiRecords.EnrichmentField> streamModel(String topic, String gradeLevel) {
+        CloudflareAiRequest request = buildRequest(topic, gradeLevel, true);
+        log.info("Streaming request: {}", request);
+        return Flux.defer(() -> {
+            IncrementalJsonFieldParser parser = new IncrementalJsonFieldParser(objectMapper);
+            return metrics.timed("ai.model-stream", guard.protect(modelRequest()
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .map(ServerSentEvent::data)
+                    .takeWhile(data -> !"[DONE]".equals(data) && !parser.isFinished())
+                    .concatMapIterable(data -> parser.feed(token(data)))));
+        }).doOnError(ex -> log.warn("Cloudflare AI stream failed: {}", ex.getMessage()));
+    }
+
+    private WebClient.RequestBodySpec modelRequest() {
         return client.post()
                 .uri(b -> b.path("/client/v4/accounts/{accountId}/ai/run/")
                         .pathSegment("{cfAiProvider}", "{cfAiVendor}", "{cfAiModel}")
@@ -46,18 +189,19 @@ public class CloudflareAiService {
                                 properties.getCfAiModel()
                         )
                 )
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(CloudflareAiRecords.CfAiEnvelope.class)
-                .map(CloudflareAiValidationUtil::validateOrThrow)
-                .timeout(Duration.ofSeconds(60))
-                .retryWhen(Retry.backoff(1, Duration.ofMillis(250))
-                        .maxBackoff(Duration.ofSeconds(1))
-                        .jitter(0.2)
-                        .filter(this::isTransient))
-                .map(env -> env.result().response())
-                .doOnError(ex -> log.warn("Cloudflare AI call failed: {}", ex.getMessage()));
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private String token(String data) {
+        if (data == null || data.isEmpty()) {
+            return "";
+        }
+        try {
+            return objectMapper.readTree(data).path("response").asText("");
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring unparseable stream chunk: {}", data);
+            return "";
+        }
     }
 
     private boolean isTransient(Throwable throwable) {
@@ -65,7 +209,7 @@ public class CloudflareAiService {
                 || (throwable.getCause() != null && throwable.getCause() instanceof java.io.IOException);
     }
 
-    private CloudflareAiRequest buildRequest(String topic, String gradeLevel) {
+    private CloudflareAiRequest buildRequest(String topic, String gradeLevel, Boolean stream) {
         String systemPrompt = buildSystemPrompt();
         String userPrompt = buildUserPrompt(topic, gradeLevel);
 
@@ -75,7 +219,8 @@ public class CloudflareAiService {
 
         return new CloudflareAiRequest(
                 List.of(systemMessage, userMessage),
-                buildResponseFormat()
+                buildResponseFormat(),
+                stream
         );
     }
 
@@ -157,8 +302,10 @@ public class CloudflareAiService {
         return new CloudflareAiJsonSchema("object", schema);
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private record CloudflareAiRequest(List<CloudflareAiMessage> messages,
-                                       CloudflareAiResponseFormat response_format) {
+                                       CloudflareAiResponseFormat response_format,
+                                       Boolean stream) {
         public String toString() {
             ObjectMapper mapper = new ObjectMapper();
             try {
@@ -0,0 +1,112 @@
+package com.astrokiddo.ai;
+
+import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.store.SegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class EnrichmentCache implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrichmentCache.class);
+
+    private final Cache<String, CloudflareAiRecords.EnrichmentResponse> cache;
+    private final CloudflareAiProperties properties;
+    private final ObjectMapper smileMapper;
+    private final SegmentLog disk;
+    private final LongAdder diskHits = new LongAdder();
+
+    public EnrichmentCache(Cache<String, CloudflareAiRecords.EnrichmentResponse> enrichmentResponseCache,
+                           CloudflareAiProperties properties,
+                           ObjectMapper objectMapper) {
+        this.cache = enrichmentResponseCache;
+        this.properties = properties;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        CloudflareAiProperties.Cache settings = properties.getCache();
+        this.disk = settings.isEnabled() && settings.isDiskEnabled()
+                ? new SegmentLog(Path.of(settings.getDirectory()), 8 * 1024 * 1024,
+                settings.getDiskMaxSize().toBytes(), settings.getTtl(), 64, 0.5)
+                : null;
+    }
+
+    public String key(String topic, String gradeLevel) {
+        return properties.getModel()
+                + "|" + CloudflareAiService.PROMPT_VERSION
+                + "|vocab=" + properties.getMaxVocabulary()
+                + "|grade=" + normalize(gradeLevel)
+                + "|" + normalize(topic);
+    }
+
+    public Optional<CloudflareAiRecords.EnrichmentResponse> get(String key) {
+        if (!properties.getCache().isEnabled()) {
+            return Optional.empty();
+        }
+        CloudflareAiRecords.EnrichmentResponse cached = cache.getIfPresent(key);
+        if (cached != null || disk == null) {
+            return Optional.ofNullable(cached);
+        }
+        Optional<CloudflareAiRecords.EnrichmentResponse> stored = disk.read(key).flatMap(this::decode);
+        stored.ifPresent(response -> {
+            diskHits.increment();
+            cache.put(key, response);
+        });
+        return stored;
+    }
+
+    public void put(String key, CloudflareAiRecords.EnrichmentResponse response) {
+        if (!properties.getCache().isEnabled() || response == null || !response.isMeaningful()) {
+            return;
+        }
+        cache.put(key, response);
+        if (disk != null) {
+            try {
+                disk.append(key, System.currentTimeMillis(), smileMapper.writeValueAsBytes(response));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not write enrichment for {} to disk: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long diskHits() {
+        return diskHits.sum();
+    }
+
+    @Override
+    public void destroy() {
+        if (disk != null) {
+            disk.close();
+        }
+    }
+
+    private Optional<CloudflareAiRecords.EnrichmentResponse> decode(ByteBuffer bytes) {
+        try {
+            return Optional.of(smileMapper.readValue(new ByteBufferBackedInputStream(bytes.duplicate()),
+                    CloudflareAiRecords.EnrichmentResponse.class));
+        } catch (IOException e) {
+            log.warn("Discarding unreadable enrichment entry: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
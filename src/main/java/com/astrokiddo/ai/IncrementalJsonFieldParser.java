@@ -0,0 +1,100 @@
+package com.astrokiddo.ai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds streamed model output into Jackson's non-blocking parser and hands back
+ * each top-level field of the JSON object as soon as its value is complete.
+ */
+class IncrementalJsonFieldParser {
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String field;
+    private TokenBuffer value;
+
+    IncrementalJsonFieldParser(ObjectMapper mapper) {
+        this.mapper = mapper;
+        try {
+            this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    List<CloudflareAiRecords.EnrichmentField> feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return List.of();
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        if (!started) {
+            // models sometimes prefix the object with prose or a code fence
+            while (offset < bytes.length && bytes[offset] != '{') {
+                offset++;
+            }
+            if (offset == bytes.length) {
+                return List.of();
+            }
+            started = true;
+        }
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, offset, bytes.length);
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed streamed enrichment JSON", e);
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    private List<CloudflareAiRecords.EnrichmentField> drain() throws IOException {
+        List<CloudflareAiRecords.EnrichmentField> completed = new ArrayList<>();
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0) {
+                if (token == JsonToken.START_OBJECT) {
+                    depth = 1;
+                }
+                continue;
+            }
+            if (depth == 1 && value == null) {
+                if (token == JsonToken.FIELD_NAME) {
+                    field = parser.currentName();
+                    continue;
+                }
+                if (token == JsonToken.END_OBJECT) {
+                    finished = true;
+                    continue;
+                }
+                value = new TokenBuffer(parser);
+            }
+            value.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 1) {
+                completed.add(new CloudflareAiRecords.EnrichmentField(field, mapper.readTree(value.asParser())));
+                value = null;
+            }
+        }
+        return completed;
+    }
+}
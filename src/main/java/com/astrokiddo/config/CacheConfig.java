@@ -3,30 +3,81 @@ package com.astrokiddo.config;
 import org.springframework.context.annotation.Configuration;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.astrokiddo.ai.CloudflareAiRecords;
 import com.astrokiddo.dto.ApodResponseDto;
 import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.nasa.CachedResponse;
+import com.astrokiddo.store.CreatedAtExpiry;
+import com.astrokiddo.web.JsonPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
-import reactor.core.publisher.Mono;
-
-import java.time.Duration;
 
 @Configuration
 public class CacheConfig {
     @Bean
-    public Cache<String, Mono<ApodResponseDto>> apodCache() {
+    public Cache<String, CachedResponse<ApodResponseDto>> apodCache(NasaProperties props) {
+        return nasaCache(props.getApodCache());
+    }
+
+    @Bean
+    public Cache<String, CachedResponse<ImageSearchResponseDto>> imageSearchCache(NasaProperties props) {
+        return nasaCache(props.getImageSearchCache());
+    }
+
+    @Bean
+    public Cache<String, CloudflareAiRecords.EnrichmentResponse> enrichmentResponseCache(CloudflareAiProperties props,
+                                                                                        ObjectMapper objectMapper) {
+        return Caffeine.newBuilder()
+                .maximumWeight(props.getCache().getMaxSize().toBytes())
+                .weigher((String key, CloudflareAiRecords.EnrichmentResponse value) -> serializedSize(objectMapper, value))
+                .expireAfterWrite(props.getCache().getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /** Rendered deck exports keyed by deck id, format and content hash; see {@code DeckExportService}. */
+    @Bean
+    public Cache<String, byte[]> exportArtifactCache(ExportProperties props) {
         return Caffeine.newBuilder()
-                .maximumSize(365)
-                .expireAfterWrite(Duration.ofHours(24))
+                .maximumWeight(props.getCacheMaxSize().toBytes())
+                .weigher((String key, byte[] artifact) -> artifact.length)
+                .expireAfterAccess(props.getCacheTtl())
                 .recordStats()
                 .build();
     }
 
+    /** Weak identity keys: an entry lives exactly as long as the cached object it was serialized from. */
     @Bean
-    public Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache() {
+    public Cache<Object, JsonPayload> jsonPayloadCache() {
         return Caffeine.newBuilder()
-                .maximumSize(2000)
-                .expireAfterWrite(Duration.ofMinutes(20))
+                .weakKeys()
                 .recordStats()
                 .build();
     }
+
+    /** Gzip variants keyed by the identity of the payload they were compressed from; see {@code CompressedPayloads}. */
+    @Bean
+    public Cache<JsonPayload, byte[]> gzipVariantCache() {
+        return Caffeine.newBuilder()
+                .weakKeys()
+                .recordStats()
+                .build();
+    }
+
+    private static <T> Cache<String, CachedResponse<T>> nasaCache(NasaProperties.CachePolicy policy) {
+        return Caffeine.newBuilder()
+                .maximumSize(policy.getMaxEntries())
+                .expireAfter(new CreatedAtExpiry<String, CachedResponse<T>>(policy.getExpireAfter(), CachedResponse::fetchedAt))
+                .recordStats()
+                .build();
+    }
+
+    private static int serializedSize(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
 }
@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Configuration
 @ConfigurationProperties(prefix = "app.cloudflare")
@@ -19,6 +22,9 @@ public class CloudflareAiProperties {
     private boolean enabled = true;
     private int maxVocabulary = 3;
     private double temperature = 0.6;
+    private boolean streaming = false;
+    private int maxConnections = 20;
+    private Cache cache = new Cache();
 
     public String getModel() {
         return cfAiProvider + "/" + cfAiVendor + "/" + cfAiModel;
@@ -31,4 +37,15 @@ public class CloudflareAiProperties {
     private boolean hasText(String value) {
         return value != null && !value.trim().isEmpty();
     }
-}
\ No newline at end of file
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofDays(7);
+        private DataSize maxSize = DataSize.ofMegabytes(32);
+        private boolean diskEnabled = false;
+        private String directory = "data/enrichment";
+        private DataSize diskMaxSize = DataSize.ofMegabytes(512);
+    }
+}
@@ -0,0 +1,24 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.zip.Deflater;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.compression")
+@Getter
+@Setter
+public class CompressionProperties {
+    private boolean enabled = true;
+    /** Payloads smaller than this are sent as they are; gzip framing would eat most of the gain. */
+    private DataSize minSize = DataSize.ofKilobytes(1);
+    /** Each variant is compressed once and then served many times, so the slowest level pays off. */
+    private int level = Deflater.BEST_COMPRESSION;
+    private int threads = 2;
+    /** Compressions allowed to wait for a thread; beyond that responses go out uncompressed. */
+    private int queueCapacity = 256;
+}
@@ -0,0 +1,38 @@
+package com.astrokiddo.config;
+
+import com.astrokiddo.store.CaffeineDeckStore;
+import com.astrokiddo.store.DeckCodec;
+import com.astrokiddo.store.DeckStore;
+import com.astrokiddo.store.PersistentDeckStore;
+import com.astrokiddo.store.SegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class DeckStoreConfig {
+
+    @Bean
+    public DeckCodec deckCodec(ObjectMapper objectMapper) {
+        return new DeckCodec(objectMapper);
+    }
+
+    @Bean
+    public DeckStore deckStore(DeckStoreProperties props, DeckCodec deckCodec) {
+        CaffeineDeckStore memory = new CaffeineDeckStore(props, deckCodec);
+        DeckStoreProperties.Persistence persistence = props.getPersistence();
+        if (!persistence.isEnabled()) {
+            return memory;
+        }
+        SegmentLog segmentLog = new SegmentLog(
+                Path.of(persistence.getDirectory()),
+                (int) persistence.getSegmentSize().toBytes(),
+                persistence.getMaxSize().toBytes(),
+                props.getTtl(),
+                persistence.getBatchSize(),
+                persistence.getCompactionThreshold());
+        return new PersistentDeckStore(memory, segmentLog, deckCodec);
+    }
+}
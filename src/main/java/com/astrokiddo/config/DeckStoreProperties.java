@@ -0,0 +1,38 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.decks.store")
+@Getter
+@Setter
+public class DeckStoreProperties {
+    private int maxEntries = 500;
+    private Duration ttl = Duration.ofDays(7);
+    private OffHeap offHeap = new OffHeap();
+    private Persistence persistence = new Persistence();
+
+    @Getter
+    @Setter
+    public static class OffHeap {
+        private boolean enabled = false;
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+    }
+
+    @Getter
+    @Setter
+    public static class Persistence {
+        private boolean enabled = false;
+        private String directory = "data/decks";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private DataSize maxSize = DataSize.ofGigabytes(2);
+        private int batchSize = 256;
+        private double compactionThreshold = 0.5;
+    }
+}
@@ -0,0 +1,22 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+@Getter
+@Setter
+public class ExportProperties {
+    /** Threads rendering PDFs; PDFBox is CPU-bound and must never run on a Netty event loop. */
+    private int pdfThreads = 2;
+    /** PDF renders allowed to wait for a thread; beyond that exports are refused with 503. */
+    private int pdfQueueCapacity = 32;
+    private DataSize cacheMaxSize = DataSize.ofMegabytes(64);
+    private Duration cacheTtl = Duration.ofHours(6);
+}
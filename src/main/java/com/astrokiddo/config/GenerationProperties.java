@@ -0,0 +1,27 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.generation")
+@Getter
+@Setter
+public class GenerationProperties {
+    private Duration imageDeadline = Duration.ofSeconds(10);
+    private Duration enrichmentDeadline = Duration.ofSeconds(45);
+    private int maxBatchSize = 500;
+    private Jobs jobs = new Jobs();
+
+    @Getter
+    @Setter
+    public static class Jobs {
+        private int queueCapacity = 1000;
+        private int maxConcurrent = 8;
+        private Duration retention = Duration.ofHours(1);
+    }
+}
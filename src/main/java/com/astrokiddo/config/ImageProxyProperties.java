@@ -0,0 +1,38 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.images")
+@Getter
+@Setter
+public class ImageProxyProperties {
+    /** Hosts /api/img may fetch from; anything else is refused so the proxy cannot be pointed elsewhere. */
+    private List<String> allowedHosts = new ArrayList<>(List.of("images-assets.nasa.gov", "apod.nasa.gov"));
+    /** Widths images are resized to; a requested width is rounded up to the next one to bound cache variants. */
+    private List<Integer> widths = new ArrayList<>(List.of(160, 320, 640, 1280));
+    private int defaultWidth = 640;
+    private DataSize maxSourceSize = DataSize.ofMegabytes(32);
+    private Duration fetchTimeout = Duration.ofSeconds(20);
+    private float jpegQuality = 0.82f;
+    private int resizeThreads = 2;
+    private int resizeQueueCapacity = 64;
+    private Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private String directory = "data/images";
+        private DataSize segmentSize = DataSize.ofMegabytes(32);
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+        private Duration ttl = Duration.ofDays(30);
+    }
+}
@@ -0,0 +1,74 @@
+package com.astrokiddo.config;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.ai.EnrichmentCache;
+import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.nasa.CachedResponse;
+import com.astrokiddo.resilience.CircuitBreaker;
+import com.astrokiddo.resilience.UpstreamGuard;
+import com.astrokiddo.resilience.UpstreamGuards;
+import com.astrokiddo.store.DeckStore;
+import com.astrokiddo.web.JsonPayload;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(Cache<String, CachedResponse<ApodResponseDto>> apodCache,
+                                    Cache<String, CachedResponse<ImageSearchResponseDto>> imageSearchCache,
+                                    Cache<String, CloudflareAiRecords.EnrichmentResponse> enrichmentResponseCache,
+                                    Cache<String, byte[]> exportArtifactCache,
+                                    Cache<Object, JsonPayload> jsonPayloadCache,
+                                    Cache<JsonPayload, byte[]> gzipVariantCache,
+                                    EnrichmentCache enrichmentCache,
+                                    DeckStore deckStore) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, apodCache, "apod");
+            CaffeineCacheMetrics.monitor(registry, imageSearchCache, "image-search");
+            CaffeineCacheMetrics.monitor(registry, enrichmentResponseCache, "enrichment");
+            CaffeineCacheMetrics.monitor(registry, exportArtifactCache, "deck-export");
+            CaffeineCacheMetrics.monitor(registry, jsonPayloadCache, "json-payload");
+            CaffeineCacheMetrics.monitor(registry, gzipVariantCache, "json-gzip");
+            FunctionCounter.builder("cache.disk.hits", enrichmentCache, EnrichmentCache::diskHits)
+                    .tag("cache", "enrichment")
+                    .register(registry);
+            if (deckStore instanceof MeterBinder deckStoreMetrics) {
+                deckStoreMetrics.bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamGuardMetrics(UpstreamGuards guards) {
+        return registry -> {
+            for (UpstreamGuard guard : guards.all()) {
+                Gauge.builder("astrokiddo.upstream.limit", guard, UpstreamGuard::getLimit)
+                        .tag("upstream", guard.getName())
+                        .register(registry);
+                Gauge.builder("astrokiddo.upstream.in.flight", guard, UpstreamGuard::getInFlight)
+                        .tag("upstream", guard.getName())
+                        .register(registry);
+                Gauge.builder("astrokiddo.upstream.circuit.open", guard, g -> g.isOpen() ? 1 : 0)
+                        .tag("upstream", guard.getName())
+                        .register(registry);
+                // one series per state, 1 for the current one, so half-open probing is visible too
+                for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                    Gauge.builder("astrokiddo.upstream.circuit.state", guard, g -> g.getState() == state ? 1 : 0)
+                            .tag("upstream", guard.getName())
+                            .tag("state", state.name().toLowerCase(Locale.ROOT))
+                            .register(registry);
+                }
+            }
+        };
+    }
+}
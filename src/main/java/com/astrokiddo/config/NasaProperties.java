@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Configuration
 @ConfigurationProperties(prefix = "app.nasa")
@@ -13,4 +16,57 @@ public class NasaProperties {
     private String apiKey;
     private String apodBaseUrl;
     private String imagesBaseUrl;
+    private int maxConnections = 50;
+    /** Usable items kept from an image search response; parsing stops once this many are read. */
+    private int searchProjectionItems = 12;
+    private Search search = new Search();
+    private CachePolicy apodCache = new CachePolicy(365, Duration.ofHours(24), Duration.ofDays(30));
+    private CachePolicy imageSearchCache = new CachePolicy(2000, Duration.ofMinutes(20), Duration.ofDays(1));
+    private Disk disk = new Disk();
+
+    @Getter
+    @Setter
+    public static class CachePolicy {
+        private int maxEntries;
+        /** Age after which a cached response is served stale while it is refreshed in the background. */
+        private Duration refreshAfter;
+        /** Age after which a cached response is no longer served at all. */
+        private Duration expireAfter;
+        /** How long a failed or empty upstream answer suppresses further fetches for the same key. */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+
+        public CachePolicy() {
+        }
+
+        CachePolicy(int maxEntries, Duration refreshAfter, Duration expireAfter) {
+            this.maxEntries = maxEntries;
+            this.refreshAfter = refreshAfter;
+            this.expireAfter = expireAfter;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+        /** page_size sent to NASA; small pages keep the response a few KB instead of ~100 items. */
+        private int pageSize = 12;
+        /** Further pages are fetched only while fewer than this many items have a usable image link. */
+        private int minUsable = 3;
+        private int maxPages = 3;
+        /**
+         * Pages up to this page_size are read whole and projected with the blocking parser, which is cheaper
+         * than streaming a small body; larger pages are streamed and parsing stops early.
+         */
+        private int maxBufferedPageSize = 25;
+    }
+
+    @Getter
+    @Setter
+    public static class Disk {
+        private boolean enabled = false;
+        private String directory = "data/nasa";
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+        /** Upper bound per cache; the oldest segments are dropped beyond it. */
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+    }
 }
@@ -0,0 +1,30 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.prefetch")
+@Getter
+@Setter
+public class PrefetchProperties {
+    private boolean enabled = false;
+    private Duration initialDelay = Duration.ofSeconds(30);
+    private Duration interval = Duration.ofHours(6);
+    /** Number of APOD days up to today to keep warm; fetched with one range request. */
+    private int apodDays = 60;
+    private List<String> topics = new ArrayList<>(List.of(
+            "planets", "moon", "sun", "mars", "jupiter", "saturn", "black hole", "galaxy", "comet", "astronaut"));
+    /** Most requested topics since startup that are prefetched on top of {@link #topics}. */
+    private int learnedTopics = 10;
+    /** Minimum spacing between two prefetch calls to NASA. */
+    private Duration spacing = Duration.ofSeconds(2);
+    /** Prefetch skips a call while the upstream guard is more than this fraction of its limit busy. */
+    private double maxUpstreamUtilization = 0.5;
+}
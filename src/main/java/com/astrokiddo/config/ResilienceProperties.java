@@ -0,0 +1,50 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.resilience")
+@Getter
+@Setter
+public class ResilienceProperties {
+    private Upstream apod = new Upstream(10, 50);
+    private Upstream images = new Upstream(20, 50);
+    private Upstream ai = new Upstream(8, 20, Duration.ofSeconds(30));
+
+    @Getter
+    @Setter
+    public static class Upstream {
+        private int initialLimit;
+        private int minLimit = 1;
+        private int maxLimit;
+        private double latencyTolerance = 2.0;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+        /**
+         * Per-call timeout applied inside the guard, counted as a failure. Keep it below the deadline of
+         * any caller of this upstream, or the caller's cancel hides slow calls; null leaves timing to callers.
+         */
+        private Duration callTimeout;
+
+        public Upstream() {
+        }
+
+        public Upstream(int initialLimit, int maxLimit) {
+            this(initialLimit, maxLimit, null);
+        }
+
+        public Upstream(int initialLimit, int maxLimit, Duration callTimeout) {
+            this.initialLimit = initialLimit;
+            this.maxLimit = maxLimit;
+            this.callTimeout = callTimeout;
+        }
+    }
+}
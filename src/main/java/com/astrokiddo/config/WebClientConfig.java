@@ -1,5 +1,6 @@
 package com.astrokiddo.config;
 
+import com.astrokiddo.images.AllowedHostRedirects;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -15,20 +16,24 @@ import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
 import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.function.BiPredicate;
 
 @Slf4j
 @Configuration
 public class WebClientConfig {
     @Bean
-    public ConnectionProvider nasaConnProvider() {
+    public ConnectionProvider nasaConnProvider(NasaProperties props) {
         return ConnectionProvider.builder("nasa")
-                .maxConnections(50)
+                .maxConnections(props.getMaxConnections())
                 .pendingAcquireTimeout(Duration.ofSeconds(5))
                 .maxIdleTime(Duration.ofSeconds(30))
                 .maxLifeTime(Duration.ofMinutes(2))
+                .metrics(true)
                 .build();
     }
 
@@ -42,13 +47,25 @@ public class WebClientConfig {
         return base(props.getImagesBaseUrl(), nasaConnProvider);
     }
 
+    /**
+     * Absolute-URL client for /api/img; shares the NASA pool but allows originals up to maxSourceSize and only
+     * follows redirects that stay on the allowed hosts.
+     */
     @Bean
-    public ConnectionProvider cloudflareAiConnProvider() {
+    public WebClient imageProxyWebClient(ImageProxyProperties props, ConnectionProvider nasaConnProvider) {
+        return base("", nasaConnProvider, new AllowedHostRedirects(props.getAllowedHosts())).mutate()
+                .codecs(c -> c.defaultCodecs().maxInMemorySize((int) props.getMaxSourceSize().toBytes()))
+                .build();
+    }
+
+    @Bean
+    public ConnectionProvider cloudflareAiConnProvider(CloudflareAiProperties props) {
         return ConnectionProvider.builder("cloudflare-ai")
-                .maxConnections(20)
+                .maxConnections(props.getMaxConnections())
                 .pendingAcquireTimeout(Duration.ofSeconds(5))
                 .maxIdleTime(Duration.ofSeconds(30))
                 .maxLifeTime(Duration.ofMinutes(2))
+                .metrics(true)
                 .build();
     }
 
@@ -65,14 +82,19 @@ public class WebClientConfig {
     }
 
     private WebClient base(String baseUrl, ConnectionProvider provider) {
+        return base(baseUrl, provider, null);
+    }
+
+    private WebClient base(String baseUrl, ConnectionProvider provider,
+                           BiPredicate<HttpClientRequest, HttpClientResponse> redirectPolicy) {
         HttpClient httpClient = HttpClient.create(provider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
                 .responseTimeout(Duration.ofSeconds(60))
                 .compress(true)
-                .followRedirect(true)
                 .doOnConnected(conn -> conn
                         .addHandlerLast(new ReadTimeoutHandler(60))
                         .addHandlerLast(new WriteTimeoutHandler(60)));
+        httpClient = redirectPolicy == null ? httpClient.followRedirect(true) : httpClient.followRedirect(redirectPolicy);
 
         return WebClient.builder()
                 .baseUrl(baseUrl)
@@ -2,39 +2,80 @@ package com.astrokiddo.controller;
 
 import com.astrokiddo.dto.ApodResponseDto;
 import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.web.CompressedPayloads;
+import com.astrokiddo.web.JsonPayloads;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(path = "/api/apod", produces = MediaType.APPLICATION_JSON_VALUE)
 public class ApodController {
 
+    private static final int MAX_RANGE_DAYS = 100;
+    // served when NASA has nothing for the day or cannot be reached; shared so it is serialized once
+    private static final ApodResponseDto UNAVAILABLE = new ApodResponseDto();
+
     private final NasaReactiveCache cache;
+    private final JsonPayloads payloads;
+    private final CompressedPayloads compressed;
 
-    public ApodController(NasaReactiveCache cache) {
+    public ApodController(NasaReactiveCache cache, JsonPayloads payloads, CompressedPayloads compressed) {
         this.cache = cache;
+        this.payloads = payloads;
+        this.compressed = compressed;
     }
 
     @GetMapping
-    public Mono<ResponseEntity<ApodResponseDto>> getApod(
+    public Mono<ResponseEntity<DataBuffer>> getApod(
             @RequestParam(value = "date", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         LocalDate targetDate = date != null ? date : LocalDate.now().minusMonths(5);
         return cache.getApod(targetDate)
-                .switchIfEmpty(Mono.just(new ApodResponseDto()))
-                .map(apod -> ResponseEntity.ok()
-                        .cacheControl(CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic())
-                        .body(apod));
+                .flatMap(apod -> compressed.respond(payloads.get(apod), acceptEncoding,
+                        CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic()))
+                .switchIfEmpty(Mono.fromSupplier(this::unavailable));
+    }
+
+    /** No ETag and no-store: a placeholder must not be revalidated or kept once NASA answers again. */
+    private ResponseEntity<DataBuffer> unavailable() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(payloads.get(UNAVAILABLE).buffer());
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<Flux<ApodResponseDto>> getApodRange(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end
+    ) {
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "end must not be before start");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                .body(cache.getApodRange(start, end));
     }
 }
@@ -1,16 +1,29 @@
 package com.astrokiddo.controller;
 
+import com.astrokiddo.dto.BatchDeckResultDto;
+import com.astrokiddo.dto.BatchGenerateRequestDto;
+import com.astrokiddo.dto.DeckStreamEventDto;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
-import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.export.DeckExportService;
+import com.astrokiddo.export.ExportFormat;
+import com.astrokiddo.service.BatchGenerationService;
 import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.store.DeckSnapshot;
 import com.astrokiddo.store.DeckStore;
+import com.astrokiddo.web.CompressedPayloads;
 import jakarta.validation.Valid;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
@@ -19,23 +32,88 @@ import java.util.concurrent.TimeUnit;
 public class DeckController {
 
     private final LessonGeneratorService service;
+    private final BatchGenerationService batchService;
     private final DeckStore store;
+    private final DeckExportService exportService;
+    private final CompressedPayloads compressed;
 
-    public DeckController(LessonGeneratorService service, DeckStore store) {
+    public DeckController(LessonGeneratorService service, BatchGenerationService batchService, DeckStore store,
+                          DeckExportService exportService, CompressedPayloads compressed) {
         this.service = service;
+        this.batchService = batchService;
         this.store = store;
+        this.exportService = exportService;
+        this.compressed = compressed;
     }
 
+    /**
+     * Responds with the bytes the deck was stored as, so a new deck is serialized exactly once; its gzip
+     * variant is then already there for the first reads.
+     */
     @PostMapping(path = "/generate", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<LessonDeck> generate(@Valid @RequestBody GenerateDeckRequestDto req) {
-        return service.generate(req).doOnNext(store::save);
+    public Mono<ResponseEntity<DataBuffer>> generate(@Valid @RequestBody GenerateDeckRequestDto req,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                     String acceptEncoding) {
+        return service.generate(req).map(store::save)
+                .flatMap(snapshot -> compressed.respond(snapshot.json(), acceptEncoding, null));
     }
 
+    @PostMapping(path = "/generate/stream", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeckStreamEventDto>> generateStream(@Valid @RequestBody GenerateDeckRequestDto req) {
+        return streamAndSave(req).map(event -> ServerSentEvent.builder(event).event(event.type()).build());
+    }
+
+    @PostMapping(path = "/generate/stream", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DeckStreamEventDto> generateNdjson(@Valid @RequestBody GenerateDeckRequestDto req) {
+        return streamAndSave(req);
+    }
+
+    @PostMapping(path = "/generate/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchDeckResultDto> generateBatch(@Valid @RequestBody BatchGenerateRequestDto req) {
+        return batchService.generate(req.getRequests());
+    }
+
+    /** Serves the snapshot's JSON as stored; a matching If-None-Match is answered with 304 by the framework. */
     @GetMapping("/{id}")
-    public ResponseEntity<LessonDeck> get(@PathVariable String id) {
-        LessonDeck deck = store.get(id).orElseThrow(() -> new NoSuchElementException("Deck not found: " + id));
+    public Mono<ResponseEntity<DataBuffer>> get(@PathVariable String id,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                String acceptEncoding) {
+        return compressed.respond(find(id).json(), acceptEncoding,
+                CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic());
+    }
+
+    @GetMapping(path = "/{id}/export/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportHtml(@PathVariable String id) {
+        return export(find(id), ExportFormat.HTML);
+    }
+
+    @GetMapping(path = "/{id}/export/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportPdf(@PathVariable String id) {
+        return export(find(id), ExportFormat.PDF);
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> export(DeckSnapshot deck, ExportFormat format) {
+        String fileName = "astrokiddo-" + deck.topic().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-")
+                + "." + format.extension();
         return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
                 .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
-                .body(deck);
+                .body(exportService.export(deck, format));
+    }
+
+    private DeckSnapshot find(String id) {
+        return store.get(id).orElseThrow(() -> new NoSuchElementException("Deck not found: " + id));
+    }
+
+    private Flux<DeckStreamEventDto> streamAndSave(GenerateDeckRequestDto req) {
+        return service.generateStream(req).doOnNext(event -> {
+            if (event.isComplete()) {
+                store.save(event.snapshot());
+            }
+        });
     }
 }
@@ -0,0 +1,56 @@
+package com.astrokiddo.controller;
+
+import com.astrokiddo.dto.DeckJobStatusDto;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.jobs.DeckJob;
+import com.astrokiddo.jobs.DeckJobService;
+import com.astrokiddo.jobs.JobPriority;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping(path = "/api/decks/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+public class DeckJobController {
+
+    private final DeckJobService jobService;
+
+    public DeckJobController(DeckJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeckJobStatusDto> submit(@Valid @RequestBody GenerateDeckRequestDto req,
+                                                   @RequestParam(value = "priority", defaultValue = "INTERACTIVE")
+                                                   JobPriority priority) {
+        DeckJob job = jobService.submit(req, priority);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/decks/jobs/" + job.getId()))
+                .body(job.toStatus());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DeckJobStatusDto> get(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(find(id).toStatus());
+    }
+
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeckJobStatusDto>> events(@PathVariable String id) {
+        return find(id).updates()
+                .map(status -> ServerSentEvent.builder(status).event(status.status().name().toLowerCase()).build());
+    }
+
+    private DeckJob find(String id) {
+        return jobService.get(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + id));
+    }
+}
@@ -0,0 +1,44 @@
+package com.astrokiddo.controller;
+
+import com.astrokiddo.images.ImageProxyService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping(path = "/api/img")
+public class ImageProxyController {
+
+    private final ImageProxyService imageProxy;
+
+    public ImageProxyController(ImageProxyService imageProxy) {
+        this.imageProxy = imageProxy;
+    }
+
+    /**
+     * A resized copy of {@code src}. The ETag lets the framework answer {@code If-None-Match} with 304. If
+     * the image cannot be fetched or resized the client is redirected to the original instead.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> image(@RequestParam("src") String src,
+                                              @RequestParam(value = "w", required = false) Integer width) {
+        return imageProxy.get(src, width)
+                .map(image -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(image.contentType()))
+                        .eTag(image.etag())
+                        .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
+                        .body(image.bytes()))
+                .onErrorResume(ex -> Mono.just(ResponseEntity.status(HttpStatus.FOUND)
+                        .location(URI.create(src))
+                        .<byte[]>build()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.astrokiddo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchDeckResultDto(String topic, String gradeLevel, String locale, String status, String deckId,
+                                 int requested, String error) {
+
+    public static BatchDeckResultDto ok(GenerateDeckRequestDto req, int requested, String deckId) {
+        return new BatchDeckResultDto(req.getTopic(), req.getGradeLevel(), req.getLocale(), "ok", deckId, requested, null);
+    }
+
+    public static BatchDeckResultDto failed(GenerateDeckRequestDto req, int requested, String error) {
+        return new BatchDeckResultDto(req.getTopic(), req.getGradeLevel(), req.getLocale(), "failed", null, requested, error);
+    }
+}
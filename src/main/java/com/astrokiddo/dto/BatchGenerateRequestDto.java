@@ -0,0 +1,14 @@
+package com.astrokiddo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchGenerateRequestDto {
+    @NotEmpty
+    private List<GenerateDeckRequestDto> requests;
+}
@@ -0,0 +1,12 @@
+package com.astrokiddo.dto;
+
+import com.astrokiddo.jobs.JobPriority;
+import com.astrokiddo.jobs.JobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeckJobStatusDto(String id, String topic, JobPriority priority, JobStatus status, String deckId,
+                               String error, Instant createdAt, Instant updatedAt) {
+}
@@ -0,0 +1,33 @@
+package com.astrokiddo.dto;
+
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.store.DeckSnapshot;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** {@code snapshot} is the frozen final deck on the complete event, kept for the store and not sent. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeckStreamEventDto(String type, String deckId, LessonDeck deck, Integer slideIndex, Slide slide,
+                                 @JsonIgnore DeckSnapshot snapshot) {
+
+    public static final String DECK = "deck";
+    public static final String SLIDE = "slide";
+    public static final String COMPLETE = "complete";
+
+    public static DeckStreamEventDto deck(LessonDeck deck) {
+        return new DeckStreamEventDto(DECK, deck.getId(), deck, null, null, null);
+    }
+
+    public static DeckStreamEventDto slide(String deckId, int index, Slide slide) {
+        return new DeckStreamEventDto(SLIDE, deckId, null, index, slide, null);
+    }
+
+    public static DeckStreamEventDto complete(LessonDeck deck, DeckSnapshot snapshot) {
+        return new DeckStreamEventDto(COMPLETE, deck.getId(), deck, null, null, snapshot);
+    }
+
+    public boolean isComplete() {
+        return COMPLETE.equals(type);
+    }
+}
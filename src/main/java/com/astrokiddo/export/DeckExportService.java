@@ -0,0 +1,85 @@
+package com.astrokiddo.export;
+
+import com.astrokiddo.config.ExportProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.service.SingleFlight;
+import com.astrokiddo.store.DeckCodec;
+import com.astrokiddo.store.DeckSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * HTML and PDF exports of stored decks. Artifacts are cached under deck id, format and the snapshot's ETag,
+ * so a deck that is saved again with new content is never served a stale export, and repeat downloads are
+ * a single buffer straight from the cache. The deck is only parsed back from its JSON when rendering.
+ * <p>
+ * HTML is small and cheap to render, so it is rendered in one piece on the calling thread and cached.
+ * PDFs are rendered on a small bounded pool; concurrent requests for the same artifact share one
+ * render, and when the pool's queue is full the export is refused with 503 rather than piling up.
+ */
+@Service
+public class DeckExportService implements DisposableBean {
+
+    private final Cache<String, byte[]> artifacts;
+    private final DeckCodec codec;
+    private final PipelineMetrics metrics;
+    private final DeckHtmlRenderer htmlRenderer = new DeckHtmlRenderer();
+    private final DeckPdfRenderer pdfRenderer = new DeckPdfRenderer();
+    private final SingleFlight<String, byte[]> pdfRenders = new SingleFlight<>();
+    private final Scheduler pdfScheduler;
+
+    public DeckExportService(Cache<String, byte[]> exportArtifactCache, DeckCodec codec, ExportProperties props,
+                             PipelineMetrics metrics) {
+        this.artifacts = exportArtifactCache;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.pdfScheduler = Schedulers.newBoundedElastic(props.getPdfThreads(), props.getPdfQueueCapacity(), "deck-pdf");
+    }
+
+    public Flux<DataBuffer> export(DeckSnapshot snapshot, ExportFormat format) {
+        return Flux.defer(() -> {
+            String key = snapshot.id() + '|' + format.extension() + '|' + snapshot.etag();
+            byte[] cached = artifacts.getIfPresent(key);
+            if (cached != null) {
+                return Flux.just(wrap(cached));
+            }
+            return switch (format) {
+                case HTML -> renderHtml(key, snapshot).map(DeckExportService::wrap).flux();
+                case PDF -> renderPdf(key, snapshot).map(DeckExportService::wrap).flux();
+            };
+        });
+    }
+
+    private Mono<byte[]> renderHtml(String key, DeckSnapshot snapshot) {
+        return metrics.timed("export.html", Mono.fromCallable(() -> htmlRenderer.render(codec.thaw(snapshot))))
+                .doOnNext(html -> artifacts.put(key, html));
+    }
+
+    private Mono<byte[]> renderPdf(String key, DeckSnapshot snapshot) {
+        return pdfRenders.execute(key, () -> metrics.timed("export.pdf",
+                        Mono.fromCallable(() -> pdfRenderer.render(codec.thaw(snapshot))).subscribeOn(pdfScheduler))
+                .doOnNext(pdf -> artifacts.put(key, pdf))
+                .onErrorMap(RejectedExecutionException.class,
+                        ex -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "PDF export queue is full")));
+    }
+
+    private static DataBuffer wrap(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    @Override
+    public void destroy() {
+        pdfScheduler.dispose();
+    }
+}
@@ -0,0 +1,113 @@
+package com.astrokiddo.export;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Renders a deck as a self-contained HTML document: the head, each slide, the vocabulary and the footer.
+ * A deck is a handful of slides, so the document is built in one buffer and cached whole by the caller.
+ */
+class DeckHtmlRenderer {
+
+    private static final String STYLE = """
+            body{font-family:system-ui,sans-serif;margin:0;background:#0b1026;color:#f4f5fb}
+            main{max-width:960px;margin:0 auto;padding:24px}
+            section{background:#151b3b;border-radius:12px;margin:0 0 24px;padding:24px;page-break-after:always}
+            h1{font-size:2rem}h2{margin-top:0}
+            img{display:block;max-width:100%;max-height:480px;margin:16px auto;border-radius:8px}
+            .attribution{font-size:.8rem;opacity:.7}
+            dt{font-weight:bold}dd{margin:0 0 8px}
+            footer{font-size:.8rem;opacity:.7;text-align:center}
+            """;
+
+    byte[] render(LessonDeck deck) {
+        List<Slide> slides = deck.getSlides() != null ? deck.getSlides() : List.of();
+        StringBuilder html = new StringBuilder(2048 + 1024 * slides.size());
+        head(html, deck);
+        slides.forEach(slide -> slide(html, slide));
+        tail(html, deck.getEnrichment());
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void head(StringBuilder html, LessonDeck deck) {
+        String topic = escape(deck.getTopic());
+        html.append("<!DOCTYPE html>\n<html lang=\"en\"><head><meta charset=\"utf-8\">"
+                + "<meta name=\"viewport\" content=\"width=device-width,initial-scale=1\">"
+                + "<title>" + topic + " | AstroKiddo</title><style>" + STYLE + "</style></head>"
+                + "<body><main><h1>" + topic + "</h1>\n");
+    }
+
+    private static void slide(StringBuilder html, Slide slide) {
+        html.append("<section class=\"slide\"");
+        if (slide.getType() != null) {
+            html.append(" data-type=\"").append(slide.getType().name()).append('"');
+        }
+        html.append("><h2>").append(escape(slide.getTitle())).append("</h2>");
+        if (isWebUrl(slide.getImageUrl())) {
+            html.append("<img src=\"").append(escape(slide.getImageUrl())).append("\" alt=\"")
+                    .append(escape(slide.getTitle())).append("\" loading=\"lazy\">");
+        }
+        html.append("<p>").append(escape(slide.getText())).append("</p>");
+        if (slide.getAttribution() != null && !slide.getAttribution().isBlank()) {
+            html.append("<p class=\"attribution\">").append(escape(slide.getAttribution())).append("</p>");
+        }
+        html.append("</section>\n");
+    }
+
+    private static void tail(StringBuilder html, CloudflareAiRecords.EnrichmentResponse enrichment) {
+        if (enrichment != null && enrichment.hasVocabulary()) {
+            html.append("<section class=\"vocabulary\"><h2>Vocabulary</h2><dl>");
+            for (CloudflareAiRecords.VocabItem item : enrichment.vocabulary()) {
+                if (item == null) {
+                    continue;
+                }
+                html.append("<dt>").append(escape(item.term())).append("</dt><dd>")
+                        .append(escape(item.definition())).append("</dd>");
+            }
+            html.append("</dl></section>\n");
+        }
+        if (enrichment != null && enrichment.hasFunFact()) {
+            html.append("<section class=\"fun-fact\"><h2>Fun fact</h2><p>").append(escape(enrichment.funFact()))
+                    .append("</p></section>\n");
+        }
+        html.append("<footer>Made with AstroKiddo from NASA imagery</footer></main></body></html>\n");
+    }
+
+    /** Only http(s) links are written into exports; anything else, e.g. {@code javascript:}, is left out. */
+    static boolean isWebUrl(String url) {
+        return url != null && (url.startsWith("https://") || url.startsWith("http://"));
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity = switch (c) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null && out == null) {
+                out = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (out != null) {
+                if (entity != null) {
+                    out.append(entity);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out != null ? out.toString() : text;
+    }
+}
@@ -0,0 +1,196 @@
+package com.astrokiddo.export;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDBorderStyleDictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays a deck out as a landscape Letter PDF with one page per slide (continued on further pages when the
+ * text is long) and a closing vocabulary page. Uses the standard Helvetica fonts so nothing is embedded.
+ * Images are linked rather than embedded: fetching them here would put network waits on the render pool.
+ * <p>
+ * Rendering is blocking and CPU-bound; callers run it on a dedicated scheduler.
+ */
+class DeckPdfRenderer {
+
+    private static final PDRectangle PAGE = new PDRectangle(PDRectangle.LETTER.getHeight(), PDRectangle.LETTER.getWidth());
+    private static final float MARGIN = 54;
+    private static final float WIDTH = PAGE.getWidth() - 2 * MARGIN;
+
+    byte[] render(LessonDeck deck) {
+        try (PDDocument document = new PDDocument()) {
+            document.getDocumentInformation().setTitle(printable(deck.getTopic()));
+            document.getDocumentInformation().setCreator("AstroKiddo");
+            Writer writer = new Writer(document);
+            for (Slide slide : deck.getSlides() != null ? deck.getSlides() : List.<Slide>of()) {
+                writer.newPage();
+                writer.text(writer.bold, 26, slide.getTitle(), 12);
+                writer.text(writer.regular, 15, slide.getText(), 10);
+                if (DeckHtmlRenderer.isWebUrl(slide.getImageUrl())) {
+                    writer.link(11, "View image", slide.getImageUrl());
+                }
+                if (slide.getAttribution() != null && !slide.getAttribution().isBlank()) {
+                    writer.text(writer.regular, 10, slide.getAttribution(), 0);
+                }
+            }
+            CloudflareAiRecords.EnrichmentResponse enrichment = deck.getEnrichment();
+            if (enrichment != null && (enrichment.hasVocabulary() || enrichment.hasFunFact())) {
+                writer.newPage();
+                if (enrichment.hasVocabulary()) {
+                    writer.text(writer.bold, 26, "Vocabulary", 12);
+                    for (CloudflareAiRecords.VocabItem item : enrichment.vocabulary()) {
+                        if (item != null) {
+                            writer.text(writer.bold, 14, item.term(), 2);
+                            writer.text(writer.regular, 13, item.definition(), 8);
+                        }
+                    }
+                }
+                if (enrichment.hasFunFact()) {
+                    writer.text(writer.bold, 18, "Fun fact", 6);
+                    writer.text(writer.regular, 13, enrichment.funFact(), 0);
+                }
+            }
+            writer.close();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not render PDF for deck " + deck.getId(), e);
+        }
+    }
+
+    /** Keeps a cursor on the current page and starts a new one when text runs past the bottom margin. */
+    private static final class Writer {
+        private final PDDocument document;
+        // font objects cache glyph widths in plain maps, so each render gets its own
+        private final PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        private PDPage page;
+        private PDPageContentStream content;
+        private float y;
+
+        private Writer(PDDocument document) {
+            this.document = document;
+        }
+
+        void newPage() throws IOException {
+            close();
+            page = new PDPage(PAGE);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            y = PAGE.getHeight() - MARGIN;
+        }
+
+        void text(PDFont font, float size, String text, float spacingAfter) throws IOException {
+            for (String line : wrap(font, size, printable(text))) {
+                float leading = size * 1.3f;
+                if (y - leading < MARGIN) {
+                    newPage();
+                }
+                y -= leading;
+                content.beginText();
+                content.setFont(font, size);
+                content.newLineAtOffset(MARGIN, y);
+                content.showText(line);
+                content.endText();
+            }
+            y -= spacingAfter;
+        }
+
+        void link(float size, String label, String url) throws IOException {
+            text(regular, size, label, 0);
+            float width = regular.getStringWidth(label) / 1000 * size;
+            PDAnnotationLink link = new PDAnnotationLink();
+            link.setRectangle(new PDRectangle(MARGIN, y - 2, width, size + 4));
+            PDBorderStyleDictionary border = new PDBorderStyleDictionary();
+            border.setWidth(0);
+            link.setBorderStyle(border);
+            PDActionURI action = new PDActionURI();
+            action.setURI(url);
+            link.setAction(action);
+            page.getAnnotations().add(link);
+            y -= 6;
+        }
+
+        void close() throws IOException {
+            if (content != null) {
+                content.close();
+                content = null;
+            }
+        }
+    }
+
+    private static List<String> wrap(PDFont font, float size, String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String candidate = line.isEmpty() ? word : line + " " + word;
+            if (width(font, size, candidate) <= WIDTH) {
+                line.setLength(0);
+                line.append(candidate);
+                continue;
+            }
+            if (!line.isEmpty()) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            // a single word wider than the page (long URLs) is hard-broken
+            while (width(font, size, word) > WIDTH) {
+                int cut = word.length() - 1;
+                while (cut > 1 && width(font, size, word.substring(0, cut)) > WIDTH) {
+                    cut--;
+                }
+                lines.add(word.substring(0, cut));
+                word = word.substring(cut);
+            }
+            line.append(word);
+        }
+        if (!line.isEmpty()) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static float width(PDFont font, float size, String text) throws IOException {
+        return font.getStringWidth(text) / 1000 * size;
+    }
+
+    /** The standard fonts only cover WinAnsi; whitespace becomes a plain space and anything else a '?'. */
+    static String printable(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        text.codePoints().forEach(cp -> {
+            if (Character.isWhitespace(cp) || Character.isSpaceChar(cp)) {
+                out.append(' ');
+            } else if (WinAnsiEncoding.INSTANCE.contains(GlyphList.getAdobeGlyphList().codePointToName(cp))) {
+                out.appendCodePoint(cp);
+            } else {
+                out.append('?');
+            }
+        });
+        return out.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.astrokiddo.export;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+public enum ExportFormat {
+    HTML(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8), "html"),
+    PDF(MediaType.APPLICATION_PDF, "pdf");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,50 @@
+package com.astrokiddo.images;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Redirect policy for the {@code /api/img} client: a redirect is followed only when its target passes the
+ * same checks as the original {@code src}, so an allowed host cannot bounce the proxy to an internal address.
+ */
+public class AllowedHostRedirects implements BiPredicate<HttpClientRequest, HttpClientResponse> {
+
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+
+    private final List<String> allowedHosts;
+
+    public AllowedHostRedirects(List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts;
+    }
+
+    @Override
+    public boolean test(HttpClientRequest request, HttpClientResponse response) {
+        if (!REDIRECT_STATUSES.contains(response.status().code())) {
+            return false;
+        }
+        String location = response.responseHeaders().get(HttpHeaderNames.LOCATION);
+        if (location == null) {
+            return false;
+        }
+        try {
+            return allowed(URI.create(request.resourceUrl()).resolve(location));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    boolean allowed(URI target) {
+        String scheme = target.getScheme() == null ? "" : target.getScheme().toLowerCase(Locale.ROOT);
+        String host = target.getHost() == null ? "" : target.getHost().toLowerCase(Locale.ROOT);
+        return (scheme.equals("https") || scheme.equals("http"))
+                && target.getUserInfo() == null
+                && allowedHosts.contains(host);
+    }
+}
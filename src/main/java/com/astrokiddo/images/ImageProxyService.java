@@ -0,0 +1,134 @@
+package com.astrokiddo.images;
+
+import com.astrokiddo.config.ImageProxyProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.service.SingleFlight;
+import com.astrokiddo.store.SegmentLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Backs {@code /api/img}: fetches an allowed NASA image, downsizes it to one of the configured widths and
+ * keeps the result in a size-bounded segment log on disk.
+ * <p>
+ * Concurrent requests coalesce twice: per source URL, so several widths of one picture share a single
+ * download, and per variant, so a burst of classrooms opening the same deck triggers one resize. Resizing
+ * runs on its own bounded scheduler and never on an event loop.
+ */
+@Service
+public class ImageProxyService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProxyService.class);
+
+    private final WebClient client;
+    private final ImageProxyProperties props;
+    private final PipelineMetrics metrics;
+    private final ImageResizer resizer;
+    private final SegmentLog disk;
+    private final Scheduler resizeScheduler;
+    private final List<Integer> widths;
+    private final SingleFlight<URI, byte[]> sources = new SingleFlight<>();
+    private final SingleFlight<String, ProxiedImage> variants = new SingleFlight<>();
+
+    public ImageProxyService(@Qualifier("imageProxyWebClient") WebClient client, ImageProxyProperties props,
+                             PipelineMetrics metrics) {
+        this.client = client;
+        this.props = props;
+        this.metrics = metrics;
+        this.resizer = new ImageResizer(props.getJpegQuality());
+        this.widths = props.getWidths().stream().sorted().toList();
+        ImageProxyProperties.Cache cache = props.getCache();
+        this.disk = new SegmentLog(Path.of(cache.getDirectory()), (int) cache.getSegmentSize().toBytes(),
+                cache.getMaxSize().toBytes(), cache.getTtl(), 64, 0.5);
+        this.resizeScheduler = Schedulers.newBoundedElastic(props.getResizeThreads(), props.getResizeQueueCapacity(),
+                "img-resize");
+    }
+
+    public Mono<ProxiedImage> get(String src, Integer requestedWidth) {
+        URI source = validate(src);
+        int width = snap(requestedWidth);
+        String key = source + "@" + width;
+        return Mono.defer(() -> {
+            Optional<ProxiedImage> stored = read(key);
+            if (stored.isPresent()) {
+                return Mono.just(stored.get());
+            }
+            return variants.execute(key, () -> sources.execute(source, () -> fetch(source))
+                    .flatMap(bytes -> metrics.timed("image.resize",
+                            Mono.fromCallable(() -> resizer.resize(bytes, width)).subscribeOn(resizeScheduler)))
+                    .doOnNext(image -> disk.append(key, System.currentTimeMillis(), image.encode()))
+                    .doOnError(ex -> log.warn("Could not proxy {} at {} px: {}", source, width, ex.toString())));
+        }).onErrorMap(RejectedExecutionException.class,
+                ex -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image resize queue is full"));
+    }
+
+    private Mono<byte[]> fetch(URI source) {
+        return metrics.timed("image.fetch", client.get().uri(source)
+                .accept(MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG, MediaType.IMAGE_GIF)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(props.getFetchTimeout()));
+    }
+
+    private Optional<ProxiedImage> read(String key) {
+        try {
+            return disk.read(key).map(bytes -> ProxiedImage.decode(bytes.duplicate()));
+        } catch (RuntimeException e) {
+            log.warn("Discarding unreadable image cache entry {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private URI validate(String src) {
+        URI uri;
+        try {
+            uri = new URI(src);
+        } catch (URISyntaxException | NullPointerException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "src is not a valid URL");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("https") && !scheme.equals("http")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "src must be an http(s) URL");
+        }
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (uri.getUserInfo() != null || !props.getAllowedHosts().contains(host)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Images from " + host + " are not proxied");
+        }
+        return uri.normalize();
+    }
+
+    /** Rounds up to the next configured width, so at most {@code widths.size()} variants exist per image. */
+    private int snap(Integer requested) {
+        int target = requested != null && requested > 0 ? requested : props.getDefaultWidth();
+        for (int width : widths) {
+            if (width >= target) {
+                return width;
+            }
+        }
+        return widths.get(widths.size() - 1);
+    }
+
+    @Override
+    public void destroy() {
+        resizeScheduler.dispose();
+        disk.close();
+    }
+}
@@ -0,0 +1,46 @@
+package com.astrokiddo.images;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A resized image ready to serve. The strong ETag is derived from the bytes, so it is identical across
+ * restarts and instances for the same source and width.
+ */
+public record ProxiedImage(String contentType, byte[] bytes, String etag) {
+
+    private static final int ETAG_BYTES = 16;
+
+    static ProxiedImage of(String contentType, byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new ProxiedImage(contentType, bytes, "\"" + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Disk record: content type and ETag (each length-prefixed) followed by the image bytes. */
+    byte[] encode() {
+        byte[] type = contentType.getBytes(StandardCharsets.US_ASCII);
+        byte[] tag = etag.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocate(2 + type.length + 2 + tag.length + bytes.length)
+                .putShort((short) type.length).put(type)
+                .putShort((short) tag.length).put(tag)
+                .put(bytes)
+                .array();
+    }
+
+    static ProxiedImage decode(ByteBuffer record) {
+        byte[] type = new byte[record.getShort()];
+        record.get(type);
+        byte[] tag = new byte[record.getShort()];
+        record.get(tag);
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new ProxiedImage(new String(type, StandardCharsets.US_ASCII), bytes, new String(tag, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,36 @@
+package com.astrokiddo.jobs;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Keeps a job while it is queued or running, however long that takes, and for {@code retention} after it
+ * finished. The clock starts when the finished job is written back to the cache.
+ */
+class CompletedJobExpiry implements Expiry<String, DeckJob> {
+    private final Duration retention;
+
+    CompletedJobExpiry(Duration retention) {
+        this.retention = retention;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, DeckJob job, long currentTime) {
+        return remaining(job);
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, DeckJob job, long currentTime, long currentDuration) {
+        return remaining(job);
+    }
+
+    @Override
+    public long expireAfterRead(String key, DeckJob job, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private long remaining(DeckJob job) {
+        return job.getStatus().isTerminal() ? retention.toNanos() : Long.MAX_VALUE;
+    }
+}
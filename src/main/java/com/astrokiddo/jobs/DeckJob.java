@@ -0,0 +1,66 @@
+package com.astrokiddo.jobs;
+
+import com.astrokiddo.dto.DeckJobStatusDto;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+public class DeckJob {
+    private final String id = "job-" + UUID.randomUUID();
+    private final GenerateDeckRequestDto request;
+    private final JobPriority priority;
+    private final long sequence;
+    private final Instant createdAt = Instant.now();
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile String deckId;
+    private volatile String error;
+    private volatile Instant updatedAt = createdAt;
+    private final Sinks.Many<DeckJobStatusDto> updates = Sinks.many().replay().latest();
+
+    DeckJob(GenerateDeckRequestDto request, JobPriority priority, long sequence) {
+        this.request = request;
+        this.priority = priority;
+        this.sequence = sequence;
+        publish();
+    }
+
+    public DeckJobStatusDto toStatus() {
+        return new DeckJobStatusDto(id, request.getTopic(), priority, status, deckId, error, createdAt, updatedAt);
+    }
+
+    public Flux<DeckJobStatusDto> updates() {
+        return updates.asFlux();
+    }
+
+    void running() {
+        transition(JobStatus.RUNNING);
+    }
+
+    void done(String deckId) {
+        this.deckId = deckId;
+        transition(JobStatus.DONE);
+    }
+
+    void failed(String error) {
+        this.error = error;
+        transition(JobStatus.FAILED);
+    }
+
+    private synchronized void transition(JobStatus next) {
+        this.status = next;
+        this.updatedAt = Instant.now();
+        publish();
+        if (next.isTerminal()) {
+            updates.tryEmitComplete();
+        }
+    }
+
+    private void publish() {
+        updates.tryEmitNext(toStatus());
+    }
+}
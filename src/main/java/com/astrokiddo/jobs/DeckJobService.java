@@ -0,0 +1,129 @@
+package com.astrokiddo.jobs;
+
+import com.astrokiddo.config.GenerationProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.store.DeckStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class DeckJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeckJobService.class);
+
+    private final LessonGeneratorService generator;
+    private final DeckStore store;
+    private final GenerationProperties.Jobs properties;
+    private final PriorityBlockingQueue<DeckJob> queue = new PriorityBlockingQueue<>(64,
+            Comparator.comparing(DeckJob::getPriority).thenComparingLong(DeckJob::getSequence));
+    private final Cache<String, DeckJob> jobs;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public DeckJobService(LessonGeneratorService generator, DeckStore store, GenerationProperties properties) {
+        this.generator = generator;
+        this.store = store;
+        this.properties = properties.getJobs();
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new CompletedJobExpiry(this.properties.getRetention()))
+                .build();
+    }
+
+    public DeckJob submit(GenerateDeckRequestDto req, JobPriority priority) {
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Generation queue is full");
+        }
+        DeckJob job = new DeckJob(req, priority, sequence.incrementAndGet());
+        jobs.put(job.getId(), job);
+        queue.offer(job);
+        drain();
+        return job;
+    }
+
+    public Optional<DeckJob> get(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public int running() {
+        return running.get();
+    }
+
+    /**
+     * Starts queued jobs while there is capacity. A job that completes synchronously, e.g. on cache hits,
+     * calls back into {@code drain} from its own {@code doFinally}; that nested call only records the request
+     * and the outer call loops again, so a long queue never grows the stack.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            startJobs();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void startJobs() {
+        while (true) {
+            int current = running.get();
+            if (current >= properties.getMaxConcurrent()) {
+                return;
+            }
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            DeckJob job = queue.poll();
+            if (job == null) {
+                running.decrementAndGet();
+                if (queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            queued.decrementAndGet();
+            run(job);
+        }
+    }
+
+    private void run(DeckJob job) {
+        job.running();
+        generator.generate(job.getRequest())
+                .doFinally(signal -> {
+                    // runs after the handlers below; re-putting the finished job starts its retention
+                    jobs.put(job.getId(), job);
+                    running.decrementAndGet();
+                    drain();
+                })
+                .subscribe(deck -> {
+                    store.save(deck);
+                    job.done(deck.id());
+                }, ex -> {
+                    log.warn("Job {} for '{}' failed: {}", job.getId(), job.getRequest().getTopic(), ex.getMessage());
+                    job.failed(ex.getMessage());
+                }, () -> {
+                    if (!job.getStatus().isTerminal()) {
+                        job.failed("No deck generated");
+                    }
+                });
+    }
+}
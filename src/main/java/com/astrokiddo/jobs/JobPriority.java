@@ -0,0 +1,3 @@
+package com.astrokiddo.jobs;
+
+public enum JobPriority {INTERACTIVE, BATCH}
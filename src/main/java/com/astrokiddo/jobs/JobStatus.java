@@ -0,0 +1,9 @@
+package com.astrokiddo.jobs;
+
+public enum JobStatus {
+    QUEUED, RUNNING, DONE, FAILED;
+
+    public boolean isTerminal() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,75 @@
+package com.astrokiddo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Latency timers and fallback/validation counters for the deck generation pipeline. Stage timers publish a
+ * percentile histogram, so p50/p95/p99 can be aggregated across instances, and are tagged with how the
+ * stage ended.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "astrokiddo.stage";
+    public static final String FALLBACK_COUNTER = "astrokiddo.fallback";
+    public static final String VALIDATION_FAILURE_COUNTER = "astrokiddo.ai.validation.failures";
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> Mono<T> timed(String stage, Mono<T> source) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return source.doFinally(signal -> sample.stop(stageTimer(stage, signal)));
+        });
+    }
+
+    public <T> Flux<T> timed(String stage, Flux<T> source) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return source.doFinally(signal -> sample.stop(stageTimer(stage, signal)));
+        });
+    }
+
+    /** Counts a request that was answered by a degraded path, e.g. a template-only deck. */
+    public void fallback(String path, String reason) {
+        Counter.builder(FALLBACK_COUNTER)
+                .tag("path", path)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void validationFailure(String field) {
+        Counter.builder(VALIDATION_FAILURE_COUNTER)
+                .tag("field", field)
+                .register(registry)
+                .increment();
+    }
+
+    private Timer stageTimer(String stage, SignalType signal) {
+        return Timer.builder(STAGE_TIMER)
+                .tag("stage", stage)
+                .tag("outcome", outcome(signal))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> signal.name().toLowerCase();
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.astrokiddo.model;
 
 import com.astrokiddo.ai.CloudflareAiRecords;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.Instant;
@@ -11,6 +12,7 @@ import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class LessonDeck {
     private String id;
     private String topic;
@@ -1,10 +1,12 @@
 package com.astrokiddo.model;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class Slide {
     private SlideType type;
     private String title;
@@ -2,15 +2,12 @@ package com.astrokiddo.nasa;
 
 import com.astrokiddo.config.NasaProperties;
 import com.astrokiddo.dto.ApodResponseDto;
-import io.netty.handler.timeout.TimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.PrematureCloseException;
-import reactor.util.retry.Retry;
 
-import java.time.Duration;
 import java.time.LocalDate;
 
 @Component
@@ -32,18 +29,19 @@ public class ApodClient {
                         .build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(ApodResponseDto.class)
-                .timeout(Duration.ofSeconds(8))
-                .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                        .maxBackoff(Duration.ofSeconds(2))
-                        .jitter(0.2)
-                        .filter(this::isTransient))
-                .onErrorResume(ex -> Mono.just(new ApodResponseDto()));
+                .bodyToMono(ApodResponseDto.class);
     }
 
-    private boolean isTransient(Throwable t) {
-        return t instanceof TimeoutException
-                || t instanceof PrematureCloseException
-                || (t.getCause() != null && isTransient(t.getCause()));
+    public Flux<ApodResponseDto> apodRange(LocalDate start, LocalDate end) {
+        return client.get()
+                .uri(uri -> uri
+                        .queryParam("api_key", props.getApiKey())
+                        .queryParam("start_date", start.toString())
+                        .queryParam("end_date", end.toString())
+                        .queryParam("thumbs", "true")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(ApodResponseDto.class);
     }
 }
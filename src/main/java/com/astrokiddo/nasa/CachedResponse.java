@@ -0,0 +1,15 @@
+package com.astrokiddo.nasa;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record CachedResponse<T>(T value, Instant fetchedAt) {
+
+    public static <T> CachedResponse<T> now(T value) {
+        return new CachedResponse<>(value, Instant.now());
+    }
+
+    public boolean olderThan(Duration age) {
+        return fetchedAt.plus(age).isBefore(Instant.now());
+    }
+}
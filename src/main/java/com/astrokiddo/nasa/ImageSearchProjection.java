@@ -0,0 +1,270 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Streams an image search response through Jackson's non-blocking parser and keeps only what deck
+ * building and image ranking read: per item the first data entry's title, description, center, nasa_id,
+ * date_created and keywords, and the link href/render pairs. Parsing stops once {@code limit} items with a usable link are collected; the
+ * rest of the body is still consumed by the caller (so the connection can be reused) but never parsed.
+ * <p>
+ * The non-blocking parser costs more per token than the blocking one, and cannot skip unwanted subtrees
+ * wholesale, so for a small page that is already in memory {@link #project} is cheaper than streaming.
+ */
+public class ImageSearchProjection {
+
+    static final int MAX_DESCRIPTION = 1024;
+    static final int MAX_KEYWORDS = 16;
+
+    private enum Ctx {ROOT, COLLECTION, ITEMS, ITEM, DATA_ARRAY, DATA, KEYWORDS, LINKS_ARRAY, LINK, METADATA, SKIP}
+
+    private final JsonParser parser;
+    private final boolean blocking;
+    private final int limit;
+    private final Deque<Ctx> path = new ArrayDeque<>();
+    private final List<ImageSearchResponseDto.Item> items = new ArrayList<>();
+    private String field;
+    private ImageSearchResponseDto.Item item;
+    private ImageSearchResponseDto.Data data;
+    private ImageSearchResponseDto.Link link;
+    private int totalHits;
+    private boolean finished;
+
+    public ImageSearchProjection(JsonFactory factory, int limit) {
+        this(nonBlockingParser(factory), false, limit);
+    }
+
+    private ImageSearchProjection(JsonParser parser, boolean blocking, int limit) {
+        this.parser = parser;
+        this.blocking = blocking;
+        this.limit = limit;
+    }
+
+    /** Projects a whole body with the blocking parser; the stream is read only as far as needed. */
+    public static ImageSearchResponseDto project(JsonFactory factory, InputStream body, int limit) {
+        try (JsonParser parser = factory.createParser(body)) {
+            ImageSearchProjection projection = new ImageSearchProjection(parser, true, limit);
+            JsonToken token;
+            while (!projection.finished && (token = parser.nextToken()) != null) {
+                projection.onToken(token);
+            }
+            return projection.result();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed image search response", e);
+        }
+    }
+
+    private static JsonParser nonBlockingParser(JsonFactory factory) {
+        try {
+            return factory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Parses the next chunk of the body. The buffer is fully consumed before this returns. */
+    public void feed(ByteBuffer chunk) {
+        if (finished || !chunk.hasRemaining()) {
+            return;
+        }
+        try {
+            ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed image search response", e);
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public ImageSearchResponseDto result() {
+        ImageSearchResponseDto response = new ImageSearchResponseDto();
+        response.setCollection(new ImageSearchResponseDto.Collection(null, null, List.copyOf(items),
+                new ImageSearchResponseDto.Metadata(totalHits), List.of()));
+        return response;
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        Ctx ctx = path.peek();
+        switch (token) {
+            case FIELD_NAME -> field = parser.currentName();
+            case START_OBJECT, START_ARRAY -> {
+                Ctx next = enter(ctx, token == JsonToken.START_OBJECT);
+                if (next == Ctx.SKIP && blocking) {
+                    parser.skipChildren();
+                } else {
+                    path.push(next);
+                }
+            }
+            case END_OBJECT, END_ARRAY -> leave(path.pop());
+            default -> {
+                if (token.isScalarValue()) {
+                    value(ctx);
+                }
+            }
+        }
+    }
+
+    private Ctx enter(Ctx ctx, boolean object) {
+        if (ctx == null) {
+            return object ? Ctx.ROOT : Ctx.SKIP;
+        }
+        switch (ctx) {
+            case ROOT:
+                if (object && "collection".equals(field)) {
+                    return Ctx.COLLECTION;
+                }
+                break;
+            case COLLECTION:
+                if (!object && "items".equals(field)) {
+                    return Ctx.ITEMS;
+                }
+                if (object && "metadata".equals(field)) {
+                    return Ctx.METADATA;
+                }
+                break;
+            case ITEMS:
+                if (object) {
+                    item = new ImageSearchResponseDto.Item(null, new ArrayList<>(1), new ArrayList<>(4));
+                    return Ctx.ITEM;
+                }
+                break;
+            case ITEM:
+                if (!object && "data".equals(field)) {
+                    return Ctx.DATA_ARRAY;
+                }
+                if (!object && "links".equals(field)) {
+                    return Ctx.LINKS_ARRAY;
+                }
+                break;
+            case DATA_ARRAY:
+                if (object && item.getData().isEmpty() && data == null) {
+                    data = new ImageSearchResponseDto.Data();
+                    return Ctx.DATA;
+                }
+                break;
+            case DATA:
+                if (!object && "keywords".equals(field)) {
+                    data.setKeywords(new ArrayList<>(4));
+                    return Ctx.KEYWORDS;
+                }
+                break;
+            case LINKS_ARRAY:
+                if (object) {
+                    link = new ImageSearchResponseDto.Link();
+                    return Ctx.LINK;
+                }
+                break;
+            default:
+                break;
+        }
+        return Ctx.SKIP;
+    }
+
+    private void leave(Ctx ctx) {
+        switch (ctx) {
+            case DATA -> {
+                item.getData().add(data);
+                data = null;
+            }
+            case LINK -> {
+                if (link.getHref() != null && !link.getHref().isBlank()) {
+                    item.getLinks().add(link);
+                }
+                link = null;
+            }
+            case ITEM -> {
+                if (!item.getLinks().isEmpty()) {
+                    items.add(item);
+                    finished = items.size() >= limit;
+                }
+                item = null;
+            }
+            case ROOT -> finished = true;
+            default -> {
+            }
+        }
+    }
+
+    private void value(Ctx ctx) throws IOException {
+        if (ctx == null || field == null) {
+            return;
+        }
+        switch (ctx) {
+            case ITEM -> {
+                if ("href".equals(field)) {
+                    item.setHref(parser.getValueAsString());
+                }
+            }
+            case DATA -> {
+                switch (field) {
+                    case "title" -> data.setTitle(parser.getValueAsString());
+                    case "description" -> data.setDescription(description());
+                    case "center" -> data.setCenter(parser.getValueAsString());
+                    case "nasa_id" -> data.setNasaId(parser.getValueAsString());
+                    case "media_type" -> data.setMediaType(parser.getValueAsString());
+                    case "date_created" -> data.setDateCreated(instant(parser.getValueAsString()));
+                    default -> {
+                    }
+                }
+            }
+            case KEYWORDS -> {
+                if (data.getKeywords().size() < MAX_KEYWORDS) {
+                    data.getKeywords().add(parser.getValueAsString());
+                }
+            }
+            case LINK -> {
+                if ("href".equals(field)) {
+                    link.setHref(parser.getValueAsString());
+                } else if ("render".equals(field)) {
+                    link.setRender(parser.getValueAsString());
+                }
+            }
+            case METADATA -> {
+                if ("total_hits".equals(field)) {
+                    totalHits = parser.getValueAsInt();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static Instant instant(String value) {
+        try {
+            return value != null ? Instant.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // shorten() in the template engine cuts at 600 characters, so anything past this is never shown;
+    // copying straight out of the parser's buffer avoids building the full description first
+    private String description() throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return parser.getValueAsString();
+        }
+        return new String(parser.getTextCharacters(), parser.getTextOffset(),
+                Math.min(parser.getTextLength(), MAX_DESCRIPTION));
+    }
+}
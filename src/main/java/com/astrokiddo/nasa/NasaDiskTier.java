@@ -0,0 +1,61 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.store.SegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * L2 tier below the in-heap NASA caches. Each record is the fetch time followed by the Smile-encoded
+ * response, so entries promoted back into L1 keep their original age for refresh and expiry.
+ */
+class NasaDiskTier<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NasaDiskTier.class);
+
+    private final SegmentLog segmentLog;
+    private final ObjectMapper smileMapper;
+    private final Class<T> type;
+
+    NasaDiskTier(SegmentLog segmentLog, ObjectMapper smileMapper, Class<T> type) {
+        this.segmentLog = segmentLog;
+        this.smileMapper = smileMapper;
+        this.type = type;
+    }
+
+    Optional<CachedResponse<T>> read(String key) {
+        return segmentLog.read(key).flatMap(bytes -> decode(key, bytes.duplicate()));
+    }
+
+    void write(String key, CachedResponse<T> response) {
+        try {
+            byte[] body = smileMapper.writeValueAsBytes(response.value());
+            long fetchedAt = response.fetchedAt().toEpochMilli();
+            byte[] record = ByteBuffer.allocate(Long.BYTES + body.length).putLong(fetchedAt).put(body).array();
+            segmentLog.append(key, fetchedAt, record);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write {} to disk: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        segmentLog.close();
+    }
+
+    private Optional<CachedResponse<T>> decode(String key, ByteBuffer bytes) {
+        try {
+            Instant fetchedAt = Instant.ofEpochMilli(bytes.getLong());
+            return Optional.of(new CachedResponse<>(smileMapper.readValue(new ByteBufferBackedInputStream(bytes), type), fetchedAt));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable disk entry {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -1,26 +1,81 @@
 package com.astrokiddo.nasa;
 
+import com.astrokiddo.config.NasaProperties;
 import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 @Component
 public class NasaImageClient {
     private final WebClient client;
+    private final ObjectMapper objectMapper;
+    private final NasaProperties props;
 
-    public NasaImageClient(WebClient imagesWebClient) {
+    public NasaImageClient(WebClient imagesWebClient, ObjectMapper objectMapper, NasaProperties props) {
         this.client = imagesWebClient;
+        this.objectMapper = objectMapper;
+        this.props = props;
     }
 
+    /**
+     * Returns a compact projection of the search response holding at most
+     * {@code app.nasa.searchProjectionItems} items that have a usable link; see {@link ImageSearchProjection}.
+     */
     public Mono<ImageSearchResponseDto> searchImages(String query, String mediaType, Integer yearStart, Integer yearEnd) {
-        return client.get().uri(uri -> {
-            var b = uri.path("/search").queryParam("q", query);
-            if (mediaType != null) b.queryParam("media_type", mediaType);
-            if (yearStart != null) b.queryParam("year_start", yearStart);
-            if (yearEnd != null) b.queryParam("year_end", yearEnd);
-            return b.build();
-        }).accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(ImageSearchResponseDto.class);
+        return searchImages(query, mediaType, yearStart, yearEnd, null, null);
+    }
+
+    public Mono<ImageSearchResponseDto> searchImages(String query, String mediaType, Integer yearStart, Integer yearEnd,
+                                                     Integer page, Integer pageSize) {
+        Flux<DataBuffer> body = client.get().uri(uri -> {
+                    var b = uri.path("/search").queryParam("q", query);
+                    if (mediaType != null) b.queryParam("media_type", mediaType);
+                    if (yearStart != null) b.queryParam("year_start", yearStart);
+                    if (yearEnd != null) b.queryParam("year_end", yearEnd);
+                    if (page != null) b.queryParam("page", page);
+                    if (pageSize != null) b.queryParam("page_size", pageSize);
+                    return b.build();
+                }).accept(MediaType.APPLICATION_JSON).retrieve()
+                .bodyToFlux(DataBuffer.class);
+        int limit = props.getSearchProjectionItems();
+        if (pageSize != null && pageSize <= props.getSearch().getMaxBufferedPageSize()) {
+            return DataBufferUtils.join(body)
+                    .map(buffer -> {
+                        try {
+                            return ImageSearchProjection.project(objectMapper.getFactory(), buffer.asInputStream(), limit);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() ->
+                            ImageSearchProjection.project(objectMapper.getFactory(), InputStream.nullInputStream(), limit)));
+        }
+        return body
+                .collect(() -> new ImageSearchProjection(objectMapper.getFactory(), limit), this::feed)
+                .map(ImageSearchProjection::result);
+    }
+
+    private void feed(ImageSearchProjection projection, DataBuffer buffer) {
+        try {
+            if (!projection.isFinished()) {
+                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                    while (chunks.hasNext()) {
+                        ByteBuffer chunk = chunks.next();
+                        projection.feed(chunk);
+                    }
+                }
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
     }
 }
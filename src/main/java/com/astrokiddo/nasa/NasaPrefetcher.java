@@ -0,0 +1,116 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.config.PrefetchProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.resilience.UpstreamGuard;
+import com.astrokiddo.resilience.UpstreamGuards;
+import com.astrokiddo.service.TopicPopularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps the NASA caches warm: backfills recent APOD days with one range request and pre-searches the
+ * configured and most requested topics. Calls are spaced out and skipped whenever interactive traffic
+ * keeps the upstream busy, so warm-up never takes capacity away from teachers.
+ */
+@Component
+public class NasaPrefetcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NasaPrefetcher.class);
+    // APOD publishes by US Eastern date
+    private static final ZoneId APOD_ZONE = ZoneId.of("America/New_York");
+
+    private final NasaReactiveCache cache;
+    private final PrefetchProperties properties;
+    private final TopicPopularity popularity;
+    private final UpstreamGuards guards;
+    private final PipelineMetrics metrics;
+    private volatile Disposable schedule;
+
+    public NasaPrefetcher(NasaReactiveCache cache, PrefetchProperties properties, TopicPopularity popularity,
+                          UpstreamGuards guards, PipelineMetrics metrics) {
+        this.cache = cache;
+        this.properties = properties;
+        this.popularity = popularity;
+        this.guards = guards;
+        this.metrics = metrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        schedule = Flux.interval(properties.getInitialDelay(), properties.getInterval())
+                .onBackpressureDrop()
+                // a failed run is skipped, not allowed to end the schedule
+                .concatMap(tick -> Mono.defer(this::prefetch).onErrorResume(ex -> {
+                    failed(ex);
+                    return Mono.empty();
+                }))
+                .subscribe(null, this::failed);
+    }
+
+    public Mono<Void> prefetch() {
+        LocalDate today = LocalDate.now(APOD_ZONE);
+        Mono<Void> apod = whenIdle(guards.apod(), cache.warmApodRange(today.minusDays(properties.getApodDays() - 1L), today))
+                .doOnNext(stored -> log.info("Prefetched {} APOD day(s)", stored))
+                .onErrorResume(ex -> {
+                    log.warn("APOD prefetch failed: {}", ex.toString());
+                    return Mono.empty();
+                })
+                .then();
+        Mono<Void> topics = Flux.fromIterable(topics())
+                .delayElements(properties.getSpacing())
+                .concatMap(topic -> whenIdle(guards.images(), cache.searchImages(topic, "image", null, null))
+                        .onErrorResume(ex -> Mono.empty()))
+                .count()
+                .doOnNext(searched -> log.info("Prefetched image search for {} topic(s)", searched))
+                .then();
+        return apod.then(topics);
+    }
+
+    private void failed(Throwable ex) {
+        log.debug("Prefetch run failed: {}", ex.toString());
+        metrics.fallback("prefetch", "error");
+    }
+
+    @Override
+    public void destroy() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private Set<String> topics() {
+        Set<String> topics = new LinkedHashSet<>();
+        properties.getTopics().forEach(topic -> topics.add(topic.trim().toLowerCase(Locale.ROOT)));
+        topics.addAll(popularity.top(properties.getLearnedTopics()));
+        topics.remove("");
+        return topics;
+    }
+
+    private <T> Mono<T> whenIdle(UpstreamGuard guard, Mono<T> call) {
+        return Mono.defer(() -> {
+            if (guard.isOpen() || guard.getInFlight() >= guard.getLimit() * properties.getMaxUpstreamUtilization()) {
+                log.debug("Skipping prefetch while {} is busy", guard.getName());
+                return Mono.empty();
+            }
+            return call;
+        });
+    }
+}
@@ -1,62 +1,176 @@
 package com.astrokiddo.nasa;
 
+import com.astrokiddo.config.NasaProperties;
 import com.astrokiddo.dto.ApodResponseDto;
 import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.resilience.UpstreamGuards;
+import com.astrokiddo.service.SingleFlight;
+import com.astrokiddo.store.SegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.benmanes.caffeine.cache.Cache;
 import io.netty.handler.timeout.ReadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.PrematureCloseException;
 import reactor.util.retry.Retry;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 
 @Component
-public class NasaReactiveCache {
-    private final Cache<String, Mono<ApodResponseDto>> apodCache;
-    private final Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache;
+public class NasaReactiveCache implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(NasaReactiveCache.class);
+
+    private final StaleWhileRevalidateCache<ApodResponseDto> apodCache;
+    private final StaleWhileRevalidateCache<ImageSearchResponseDto> imageSearchCache;
     private final ApodClient apodClient;
     private final NasaImageClient imageClient;
+    private final UpstreamGuards guards;
+    private final PipelineMetrics metrics;
+    private final NasaProperties props;
+    private final List<NasaDiskTier<?>> diskTiers = new ArrayList<>();
+    private final SingleFlight<String, Integer> apodRanges = new SingleFlight<>();
 
-    public NasaReactiveCache(Cache<String, Mono<ApodResponseDto>> apodCache,
-                             Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache,
+    public NasaReactiveCache(Cache<String, CachedResponse<ApodResponseDto>> apodCache,
+                             Cache<String, CachedResponse<ImageSearchResponseDto>> imageSearchCache,
+                             NasaProperties props,
                              ApodClient apodClient,
-                             NasaImageClient imageClient) {
-        this.apodCache = apodCache;
-        this.imageSearchCache = imageSearchCache;
+                             NasaImageClient imageClient,
+                             UpstreamGuards guards,
+                             ObjectMapper objectMapper,
+                             PipelineMetrics metrics) {
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.apodCache = new StaleWhileRevalidateCache<>("apod", apodCache, props.getApodCache(),
+                NasaReactiveCache::hasContent, ApodResponseDto::new,
+                diskTier(props, "apod", props.getApodCache(), smileMapper, ApodResponseDto.class), metrics);
+        this.imageSearchCache = new StaleWhileRevalidateCache<>("image-search", imageSearchCache,
+                props.getImageSearchCache(), NasaReactiveCache::hasItems, ImageSearchResponseDto::new,
+                diskTier(props, "image-search", props.getImageSearchCache(), smileMapper, ImageSearchResponseDto.class),
+                metrics);
         this.apodClient = apodClient;
         this.imageClient = imageClient;
+        this.guards = guards;
+        this.metrics = metrics;
+        this.props = props;
     }
 
     public Mono<ApodResponseDto> getApod(LocalDate date) {
         final String key = date.toString();
-        return apodCache.get(key, k ->
-                apodClient.apod(date)
-                        .timeout(Duration.ofSeconds(8))
-                        .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                                .maxBackoff(Duration.ofSeconds(2))
-                                .jitter(0.2)
-                                .filter(this::isTransient))
-                        .onErrorReturn(new ApodResponseDto())
-                        .cache()
+        return apodCache.get(key, () ->
+                metrics.timed("nasa.apod", guards.apod().protect(apodClient.apod(date).timeout(Duration.ofSeconds(8))))
+                        .retryWhen(retryTransient())
         );
     }
 
+    /**
+     * Streams the cached APOD entries for {@code [start, end]} in date order, after filling the dates that
+     * are not cached yet with one upstream range request. Days NASA could not provide are left out.
+     */
+    public Flux<ApodResponseDto> getApodRange(LocalDate start, LocalDate end) {
+        return warmApodRange(start, end)
+                .onErrorResume(ex -> {
+                    log.debug("APOD range {}..{} served from cache only: {}", start, end, ex.toString());
+                    return Mono.just(0);
+                })
+                .thenMany(Flux.defer(() -> Flux.fromStream(start.datesUntil(end.plusDays(1)))))
+                .mapNotNull(date -> apodCache.peek(date.toString()).orElse(null));
+    }
+
+    /**
+     * Fills the APOD dates in {@code [start, end]} that are not cached yet with a single upstream range
+     * request covering the first to the last missing date. Emits the number of entries stored.
+     */
+    public Mono<Integer> warmApodRange(LocalDate start, LocalDate end) {
+        return Mono.defer(() -> {
+            List<LocalDate> missing = start.datesUntil(end.plusDays(1))
+                    .filter(date -> !apodCache.contains(date.toString()))
+                    .toList();
+            if (missing.isEmpty()) {
+                return Mono.just(0);
+            }
+            LocalDate first = missing.get(0);
+            LocalDate last = missing.get(missing.size() - 1);
+            return apodRanges.execute(first + ".." + last, () -> metrics.timed("nasa.apod-range", guards.apod()
+                    .protect(apodClient.apodRange(first, last).collectList().timeout(Duration.ofSeconds(20))))
+                    .retryWhen(retryTransient())
+                    .map(days -> (int) days.stream()
+                            .filter(apod -> apod.getDate() != null && apodCache.offer(apod.getDate(), apod))
+                            .count()));
+        });
+    }
+
+    /**
+     * Top-K usable images for a query: requests small pages and only fetches the next one while fewer than
+     * {@code app.nasa.search.minUsable} items with an image link have been found and NASA has more hits.
+     */
     public Mono<ImageSearchResponseDto> searchImages(String q, String mediaType,
                                                      Integer yearStart, Integer yearEnd) {
         final String key = buildKey(q, mediaType, yearStart, yearEnd);
-        return imageSearchCache.get(key, k ->
-                imageClient.searchImages(q, mediaType, yearStart, yearEnd)
-                        .timeout(Duration.ofSeconds(8))
-                        .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                                .maxBackoff(Duration.ofSeconds(2))
-                                .jitter(0.2)
-                                .filter(this::isTransient))
-                        .onErrorReturn(new ImageSearchResponseDto())
-                        .cache()
-        );
+        return imageSearchCache.get(key, () -> searchUsable(q, mediaType, yearStart, yearEnd));
+    }
+
+    private Mono<ImageSearchResponseDto> searchUsable(String q, String mediaType, Integer yearStart, Integer yearEnd) {
+        NasaProperties.Search search = props.getSearch();
+        return searchPage(q, mediaType, yearStart, yearEnd, 1)
+                .map(first -> new SearchPages(1, first, List.of()))
+                .expand(pages -> pages.needsMore(search)
+                        ? searchPage(q, mediaType, yearStart, yearEnd, pages.number() + 1).map(pages::next)
+                        : Mono.empty())
+                .last()
+                .map(SearchPages::merged);
+    }
+
+    private Mono<ImageSearchResponseDto> searchPage(String q, String mediaType, Integer yearStart, Integer yearEnd,
+                                                    int page) {
+        return metrics.timed("nasa.images", guards.images().protect(imageClient.searchImages(q, mediaType,
+                                yearStart, yearEnd, page, props.getSearch().getPageSize())
+                        .timeout(Duration.ofSeconds(8))))
+                .retryWhen(retryTransient());
+    }
+
+    @Override
+    public void destroy() {
+        diskTiers.forEach(NasaDiskTier::close);
+    }
+
+    private <T> NasaDiskTier<T> diskTier(NasaProperties props, String name, NasaProperties.CachePolicy policy,
+                                         ObjectMapper smileMapper, Class<T> type) {
+        NasaProperties.Disk disk = props.getDisk();
+        if (!disk.isEnabled()) {
+            return null;
+        }
+        SegmentLog segmentLog = new SegmentLog(Path.of(disk.getDirectory(), name),
+                (int) disk.getSegmentSize().toBytes(), disk.getMaxSize().toBytes(), policy.getExpireAfter(), 64, 0.5);
+        NasaDiskTier<T> tier = new NasaDiskTier<>(segmentLog, smileMapper, type);
+        diskTiers.add(tier);
+        return tier;
+    }
+
+    private Retry retryTransient() {
+        return Retry.backoff(2, Duration.ofMillis(300))
+                .maxBackoff(Duration.ofSeconds(2))
+                .jitter(0.2)
+                .filter(this::isTransient);
+    }
+
+    private static boolean hasContent(ApodResponseDto apod) {
+        return apod.getTitle() != null || apod.getUrl() != null;
+    }
+
+    private static boolean hasItems(ImageSearchResponseDto response) {
+        return response.getCollection() != null
+                && response.getCollection().getItems() != null
+                && !response.getCollection().getItems().isEmpty();
     }
 
     private boolean isTransient(Throwable t) {
@@ -68,6 +182,39 @@ public class NasaReactiveCache {
 
     private String buildKey(String q, String mediaType, Integer y1, Integer y2) {
         return (q == null ? "" : q.trim().toLowerCase()) + "|mt=" + (mediaType == null ? "" : mediaType)
-                + "|y1=" + (y1 == null ? "" : y1) + "|y2=" + (y2 == null ? "" : y2);
+                + "|y1=" + (y1 == null ? "" : y1) + "|y2=" + (y2 == null ? "" : y2)
+                + "|k=" + props.getSearch().getMinUsable();
+    }
+
+    /** Pages of one top-K search fetched so far; items are already filtered to usable ones by the projection. */
+    private record SearchPages(int number, ImageSearchResponseDto last, List<ImageSearchResponseDto.Item> earlier) {
+
+        boolean needsMore(NasaProperties.Search search) {
+            int totalHits = last.getCollection().getMetadata() != null ? last.getCollection().getMetadata().getTotalHits() : 0;
+            return earlier.size() + items(last).size() < search.getMinUsable()
+                    && number < search.getMaxPages()
+                    && (long) number * search.getPageSize() < totalHits;
+        }
+
+        SearchPages next(ImageSearchResponseDto page) {
+            List<ImageSearchResponseDto.Item> items = new ArrayList<>(earlier);
+            items.addAll(items(last));
+            return new SearchPages(number + 1, page, items);
+        }
+
+        ImageSearchResponseDto merged() {
+            if (earlier.isEmpty()) {
+                return last;
+            }
+            List<ImageSearchResponseDto.Item> items = new ArrayList<>(earlier);
+            items.addAll(items(last));
+            last.getCollection().setItems(items);
+            return last;
+        }
+
+        private static List<ImageSearchResponseDto.Item> items(ImageSearchResponseDto page) {
+            return page.getCollection() != null && page.getCollection().getItems() != null
+                    ? page.getCollection().getItems() : List.of();
+        }
     }
 }
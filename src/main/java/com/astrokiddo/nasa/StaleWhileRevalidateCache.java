@@ -0,0 +1,137 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.resilience.UpstreamUnavailableException;
+import com.astrokiddo.service.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Serves the last good upstream response for a key and refreshes it in the background once it is older
+ * than {@code refreshAfter}. Failed and empty answers are never stored; they only suppress further fetches
+ * for the key for {@code negativeTtl}, so a NASA hiccup costs at most one short window instead of a full TTL.
+ * A call the local {@code UpstreamGuard} turned away never reached NASA and suppresses nothing.
+ * With a disk tier, good responses are also written through to it and L1 misses are promoted back from it.
+ */
+class StaleWhileRevalidateCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    private final String name;
+    private final Cache<String, CachedResponse<T>> cache;
+    private final Cache<String, Boolean> negative;
+    private final NasaProperties.CachePolicy policy;
+    private final Predicate<T> usable;
+    private final Supplier<T> empty;
+    private final NasaDiskTier<T> disk;
+    private final PipelineMetrics metrics;
+    private final SingleFlight<String, T> inFlight = new SingleFlight<>();
+
+    StaleWhileRevalidateCache(String name, Cache<String, CachedResponse<T>> cache, NasaProperties.CachePolicy policy,
+                              Predicate<T> usable, Supplier<T> empty, NasaDiskTier<T> disk,
+                              PipelineMetrics metrics) {
+        this.name = name;
+        this.cache = cache;
+        this.policy = policy;
+        this.usable = usable;
+        this.empty = empty;
+        this.disk = disk;
+        this.metrics = metrics;
+        this.negative = Caffeine.newBuilder()
+                .maximumSize(policy.getMaxEntries())
+                .expireAfterWrite(policy.getNegativeTtl())
+                .build();
+    }
+
+    Mono<T> get(String key, Supplier<Mono<T>> fetch) {
+        return Mono.defer(() -> {
+            CachedResponse<T> cached = lookup(key);
+            boolean suppressed = negative.getIfPresent(key) != null;
+            if (cached != null) {
+                if (!suppressed && cached.olderThan(policy.getRefreshAfter())) {
+                    load(key, fetch).subscribe(
+                            value -> log.debug("Refreshed {} entry {}", name, key),
+                            e -> {
+                                log.debug("Refresh of {} entry {} failed, keeping stale value: {}", name, key, e.toString());
+                                metrics.fallback(name, "stale");
+                            });
+                }
+                return Mono.just(cached.value());
+            }
+            if (suppressed) {
+                metrics.fallback(name, "suppressed");
+                return Mono.fromSupplier(empty);
+            }
+            return load(key, fetch).onErrorResume(e -> {
+                log.debug("Fetching {} entry {} failed: {}", name, key, e.toString());
+                metrics.fallback(name, e instanceof UpstreamUnavailableException ? "upstream-unavailable" : "upstream-error");
+                return Mono.fromSupplier(empty);
+            });
+        });
+    }
+
+    /** True when the key is served from L1 or L2 without calling upstream. */
+    boolean contains(String key) {
+        return lookup(key) != null;
+    }
+
+    /** The cached value for the key, if any, without ever calling upstream. */
+    Optional<T> peek(String key) {
+        return Optional.ofNullable(lookup(key)).map(CachedResponse::value);
+    }
+
+    /** Stores a value fetched outside {@link #get}, e.g. one element of a bulk upstream response. */
+    boolean offer(String key, T value) {
+        if (!usable.test(value)) {
+            return false;
+        }
+        store(key, value);
+        return true;
+    }
+
+    private CachedResponse<T> lookup(String key) {
+        CachedResponse<T> cached = cache.getIfPresent(key);
+        if (cached != null || disk == null) {
+            return cached;
+        }
+        CachedResponse<T> stored = disk.read(key)
+                .filter(response -> !response.olderThan(policy.getExpireAfter()))
+                .orElse(null);
+        if (stored != null) {
+            cache.put(key, stored);
+        }
+        return stored;
+    }
+
+    private Mono<T> load(String key, Supplier<Mono<T>> fetch) {
+        return inFlight.execute(key, () -> fetch.get()
+                .switchIfEmpty(Mono.fromSupplier(empty))
+                .doOnNext(value -> store(key, value))
+                .doOnError(e -> {
+                    if (!(e instanceof UpstreamUnavailableException)) {
+                        negative.put(key, Boolean.TRUE);
+                    }
+                }));
+    }
+
+    private void store(String key, T value) {
+        if (usable.test(value)) {
+            CachedResponse<T> response = CachedResponse.now(value);
+            cache.put(key, response);
+            negative.invalidate(key);
+            if (disk != null) {
+                disk.write(key, response);
+            }
+        } else {
+            negative.put(key, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.astrokiddo.resilience;
+
+/**
+ * AIMD limiter in the spirit of TCP Vegas: the limit grows by roughly one per window while
+ * latency stays near the best observed round trip, and shrinks multiplicatively when latency
+ * climbs past {@code latencyTolerance} times that baseline or a call is dropped.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double DROP_RATIO = 0.5;
+    private static final double BASELINE_DECAY = 1.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private double limit;
+    private double baselineNanos = Double.MAX_VALUE;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long rttNanos) {
+        inFlight--;
+        // let the baseline drift up slowly so a permanently slower upstream is not punished forever
+        baselineNanos = Math.min(baselineNanos * BASELINE_DECAY, rttNanos);
+        if (rttNanos > baselineNanos * latencyTolerance) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlight + 1 >= (int) limit / 2) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized void onDropped() {
+        inFlight--;
+        limit = Math.max(minLimit, limit * DROP_RATIO);
+    }
+
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,150 @@
+package com.astrokiddo.resilience;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. Every admitted call gets a {@link Permission} recording the state it was admitted
+ * under, and its outcome is judged against that: only calls admitted while half-open are trial calls, and a call
+ * that finishes after the circuit changed state no longer says anything about the upstream and is ignored.
+ */
+public class CircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    /** Handed out by {@link #tryAcquirePermission()}; report the call's outcome with it exactly once. */
+    public static final class Permission {
+        private final long generation;
+        private final boolean trial;
+
+        private Permission(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+
+        public boolean isTrial() {
+            return trial;
+        }
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    // bumped on every state change, so outcomes of calls admitted under an earlier state can be told apart
+    private long generation;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int slidingWindowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this.window = new boolean[Math.max(1, slidingWindowSize)];
+        this.minimumCalls = Math.min(minimumCalls, window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /** A permission for one call, or null when the circuit is open or all trial calls are taken. */
+    public synchronized Permission tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return null;
+            }
+            halfOpenPermits--;
+            return new Permission(generation, true);
+        }
+        return new Permission(generation, false);
+    }
+
+    /** Neutral outcome: the call said nothing about the upstream, e.g. it was cancelled or answered 4xx. */
+    public synchronized void releasePermission(Permission permission) {
+        if (current(permission) && permission.trial) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess(Permission permission) {
+        if (!current(permission)) {
+            return;
+        }
+        if (permission.trial) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(Permission permission) {
+        if (!current(permission)) {
+            return;
+        }
+        if (permission.trial) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && failures >= recorded * failureRateThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    private boolean current(Permission permission) {
+        return permission.generation == generation;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps calls to one upstream with a circuit breaker and an adaptive concurrency limit. When a call timeout
+ * is configured it is applied inside the guard, so a slow call fails here, lowers the limit and counts
+ * towards opening the circuit, instead of being cancelled by the caller's longer deadline and ignored.
+ */
+public class UpstreamGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamGuard.class);
+
+    private final String name;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker breaker;
+    private final Duration callTimeout;
+
+    public UpstreamGuard(String name, ResilienceProperties.Upstream settings) {
+        this.name = name;
+        this.callTimeout = settings.getCallTimeout();
+        this.limiter = new AdaptiveConcurrencyLimiter(settings.getInitialLimit(), settings.getMinLimit(),
+                settings.getMaxLimit(), settings.getLatencyTolerance());
+        this.breaker = new CircuitBreaker(settings.getSlidingWindowSize(), settings.getMinimumCalls(),
+                settings.getFailureRateThreshold(), settings.getOpenDuration(), settings.getHalfOpenCalls());
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            return (callTimeout != null ? call.timeout(callTimeout) : call)
+                    .doOnSuccess(v -> permit.success())
+                    .doOnError(permit::failure)
+                    .doFinally(signal -> permit.cancelled(signal));
+        });
+    }
+
+    public <T> Flux<T> protect(Flux<T> call) {
+        return Flux.defer(() -> {
+            Permit permit = acquire();
+            // for a stream the timeout bounds the wait for each element, not the whole stream
+            return (callTimeout != null ? call.timeout(callTimeout) : call)
+                    .doOnComplete(permit::success)
+                    .doOnError(permit::failure)
+                    .doFinally(signal -> permit.cancelled(signal));
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isOpen() {
+        return breaker.isOpen();
+    }
+
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+
+    public int getLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+
+    private Permit acquire() {
+        CircuitBreaker.Permission permission = breaker.tryAcquirePermission();
+        if (permission == null) {
+            throw new UpstreamUnavailableException(name, "circuit open");
+        }
+        if (!limiter.tryAcquire()) {
+            breaker.releasePermission(permission);
+            throw new UpstreamUnavailableException(name, "concurrency limit " + limiter.getLimit() + " reached");
+        }
+        return new Permit(permission);
+    }
+
+    private static boolean isUpstreamFault(Throwable t) {
+        if (t instanceof WebClientResponseException wre) {
+            return wre.getStatusCode().is5xxServerError() || wre.getStatusCode().value() == 429;
+        }
+        return t instanceof TimeoutException
+                || t instanceof ReadTimeoutException
+                || t instanceof WebClientRequestException
+                || t instanceof IOException
+                || (t.getCause() != null && t.getCause() != t && isUpstreamFault(t.getCause()));
+    }
+
+    private final class Permit {
+        private final long started = System.nanoTime();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final CircuitBreaker.Permission permission;
+
+        Permit(CircuitBreaker.Permission permission) {
+            this.permission = permission;
+        }
+
+        void success() {
+            if (settled.compareAndSet(false, true)) {
+                limiter.onSuccess(System.nanoTime() - started);
+                breaker.onSuccess(permission);
+            }
+        }
+
+        void failure(Throwable t) {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            if (isUpstreamFault(t)) {
+                limiter.onDropped();
+                breaker.onFailure(permission);
+                if (breaker.isOpen()) {
+                    log.warn("Circuit for {} is open after: {}", name, t.toString());
+                }
+            } else {
+                // a 4xx or a local error says nothing about the upstream's health, so it cannot close the circuit
+                limiter.onIgnored();
+                breaker.releasePermission(permission);
+            }
+        }
+
+        void cancelled(SignalType signal) {
+            if (signal != SignalType.CANCEL || !settled.compareAndSet(false, true)) {
+                return;
+            }
+            // a caller that gave up on a call already running past the call timeout was waiting on a slow
+            // upstream; only cancels before that are neutral
+            if (callTimeout != null && System.nanoTime() - started >= callTimeout.toNanos()) {
+                limiter.onDropped();
+                breaker.onFailure(permission);
+            } else {
+                limiter.onIgnored();
+                breaker.releasePermission(permission);
+            }
+        }
+    }
+}
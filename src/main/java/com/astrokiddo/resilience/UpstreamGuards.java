@@ -0,0 +1,35 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class UpstreamGuards {
+    private final UpstreamGuard apod;
+    private final UpstreamGuard images;
+    private final UpstreamGuard ai;
+
+    public UpstreamGuards(ResilienceProperties properties) {
+        this.apod = new UpstreamGuard("apod", properties.getApod());
+        this.images = new UpstreamGuard("images", properties.getImages());
+        this.ai = new UpstreamGuard("cloudflare-ai", properties.getAi());
+    }
+
+    public UpstreamGuard apod() {
+        return apod;
+    }
+
+    public UpstreamGuard images() {
+        return images;
+    }
+
+    public UpstreamGuard ai() {
+        return ai;
+    }
+
+    public List<UpstreamGuard> all() {
+        return List.of(apod, images, ai);
+    }
+}
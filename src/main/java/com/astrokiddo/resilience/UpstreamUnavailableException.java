@@ -0,0 +1,9 @@
+package com.astrokiddo.resilience;
+
+public class UpstreamUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamUnavailableException(String upstream, String reason) {
+        super(upstream + " unavailable: " + reason, null, false, false);
+    }
+}
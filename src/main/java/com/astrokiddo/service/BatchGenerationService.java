@@ -0,0 +1,74 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.config.GenerationProperties;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.dto.BatchDeckResultDto;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.store.DeckStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class BatchGenerationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchGenerationService.class);
+
+    private final LessonGeneratorService generator;
+    private final DeckStore store;
+    private final GenerationProperties properties;
+    private final int concurrency;
+
+    public BatchGenerationService(LessonGeneratorService generator, DeckStore store, GenerationProperties properties,
+                                  NasaProperties nasaProperties, CloudflareAiProperties aiProperties) {
+        this.generator = generator;
+        this.store = store;
+        this.properties = properties;
+        // every generation holds one NASA and one AI connection, so the smaller pool is the ceiling
+        this.concurrency = Math.max(1, Math.min(nasaProperties.getMaxConnections(), aiProperties.getMaxConnections()));
+    }
+
+    public Flux<BatchDeckResultDto> generate(List<GenerateDeckRequestDto> requests) {
+        if (requests.size() > properties.getMaxBatchSize()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch exceeds " + properties.getMaxBatchSize() + " requests"));
+        }
+        Map<GenerationKey, GenerateDeckRequestDto> unique = new LinkedHashMap<>();
+        Map<GenerationKey, Integer> counts = new LinkedHashMap<>();
+        List<BatchDeckResultDto> rejected = new ArrayList<>();
+        for (GenerateDeckRequestDto req : requests) {
+            if (req == null || req.getTopic() == null || req.getTopic().isBlank()) {
+                rejected.add(BatchDeckResultDto.failed(req != null ? req : new GenerateDeckRequestDto(), 1,
+                        "topic must not be blank"));
+                continue;
+            }
+            GenerationKey key = GenerationKey.of(req);
+            unique.putIfAbsent(key, req);
+            counts.merge(key, 1, Integer::sum);
+        }
+        log.info("Batch of {} request(s), {} unique, concurrency {}", requests.size(), unique.size(), concurrency);
+        return Flux.fromIterable(rejected).concatWith(Flux.fromIterable(unique.entrySet())
+                .flatMap(e -> generateOne(e.getValue(), counts.get(e.getKey())), concurrency));
+    }
+
+    private Mono<BatchDeckResultDto> generateOne(GenerateDeckRequestDto req, int requested) {
+        return generator.generate(req)
+                .doOnNext(store::save)
+                .map(deck -> BatchDeckResultDto.ok(req, requested, deck.id()))
+                .switchIfEmpty(Mono.fromSupplier(() -> BatchDeckResultDto.failed(req, requested, "No deck generated")))
+                .onErrorResume(ex -> {
+                    log.warn("Batch generation for '{}' failed: {}", req.getTopic(), ex.getMessage());
+                    return Mono.just(BatchDeckResultDto.failed(req, requested, ex.getMessage()));
+                });
+    }
+}
@@ -0,0 +1,19 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+
+import java.util.Locale;
+
+public record GenerationKey(String topic, String gradeLevel, String locale) {
+
+    public static GenerationKey of(GenerateDeckRequestDto req) {
+        return new GenerationKey(normalize(req.getTopic()), normalize(req.getGradeLevel()), normalize(req.getLocale()));
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,232 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Picks the best distinct images for a deck from a search response in one pass over the items.
+ * <p>
+ * Each item is scored on how well its title and keywords match the topic, whether it has a
+ * {@code render=image} link, how much description it carries and how recent it is, with a small bonus for
+ * NASA's own relevance order. The best {@code limit} items are kept in a fixed-size array; an item whose
+ * nasa_id is already kept only replaces that entry when it scores higher. The cheap signals are scored
+ * first so that text matching is skipped for items that could not enter the top set anyway. Nothing is
+ * allocated per item.
+ */
+final class ImageRanker {
+
+    private static final double TITLE_MATCH = 3.0;
+    private static final double KEYWORD_MATCH = 1.0;
+    private static final double IMAGE_RENDER = 2.0;
+    private static final double IMAGE_EXTENSION = 1.0;
+    private static final double DESCRIPTION_MAX = 2.0;
+    private static final int DESCRIPTION_FULL = 400;
+    private static final double RECENCY_MAX = 1.5;
+    private static final double RECENCY_HALF_LIFE_YEARS = 15.0;
+    private static final double POSITION_STEP = 0.02;
+    private static final long SECONDS_PER_YEAR = 31_557_600L;
+
+    List<ImageSearchResponseDto.Item> rank(String topic, List<ImageSearchResponseDto.Item> items, int limit) {
+        if (items == null || items.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Term[] terms = terms(topic);
+        long now = System.currentTimeMillis() / 1000;
+        ImageSearchResponseDto.Item[] picked = new ImageSearchResponseDto.Item[limit];
+        double[] scores = new double[limit];
+        int count = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            ImageSearchResponseDto.Item item = items.get(i);
+            if (item == null) {
+                continue;
+            }
+            ImageSearchResponseDto.Data data = firstData(item);
+            double score = baseScore(item, data, now) - i * POSITION_STEP;
+            if (count == limit && score + terms.length * TITLE_MATCH <= scores[count - 1]) {
+                // cannot enter the top set even if every term matched the title
+                continue;
+            }
+            score += termScore(data, terms);
+            int slot = indexOfSameImage(picked, count, item);
+            if (slot >= 0) {
+                if (score <= scores[slot]) {
+                    continue;
+                }
+                // drop the weaker duplicate and re-insert below
+                System.arraycopy(picked, slot + 1, picked, slot, count - slot - 1);
+                System.arraycopy(scores, slot + 1, scores, slot, count - slot - 1);
+                count--;
+            } else if (count == limit && score <= scores[count - 1]) {
+                continue;
+            }
+            int at = count < limit ? count++ : count - 1;
+            while (at > 0 && scores[at - 1] < score) {
+                picked[at] = picked[at - 1];
+                scores[at] = scores[at - 1];
+                at--;
+            }
+            picked[at] = item;
+            scores[at] = score;
+        }
+        return Arrays.asList(picked).subList(0, count);
+    }
+
+    /** Topic terms found in the title, or failing that in the keywords. */
+    private static double termScore(ImageSearchResponseDto.Data data, Term[] terms) {
+        if (data == null) {
+            return 0;
+        }
+        double score = 0;
+        for (Term term : terms) {
+            if (term.foundIn(data.getTitle())) {
+                score += TITLE_MATCH;
+            } else if (keywordMatches(data.getKeywords(), term)) {
+                score += KEYWORD_MATCH;
+            }
+        }
+        return score;
+    }
+
+    private static double baseScore(ImageSearchResponseDto.Item item, ImageSearchResponseDto.Data data, long now) {
+        double score = 0;
+        if (data != null) {
+            String description = data.getDescription();
+            if (description != null) {
+                score += DESCRIPTION_MAX * Math.min(description.length(), DESCRIPTION_FULL) / DESCRIPTION_FULL;
+            }
+            Instant created = data.getDateCreated();
+            if (created != null) {
+                double years = Math.max(0, now - created.getEpochSecond()) / (double) SECONDS_PER_YEAR;
+                score += RECENCY_MAX * RECENCY_HALF_LIFE_YEARS / (RECENCY_HALF_LIFE_YEARS + years);
+            }
+        }
+        return score + imageLinkScore(item.getLinks());
+    }
+
+    private static double imageLinkScore(List<ImageSearchResponseDto.Link> links) {
+        if (links == null) {
+            return 0;
+        }
+        double best = 0;
+        for (int i = 0, n = links.size(); i < n; i++) {
+            ImageSearchResponseDto.Link link = links.get(i);
+            if (link == null || link.getHref() == null) {
+                continue;
+            }
+            if ("image".equalsIgnoreCase(link.getRender())) {
+                return IMAGE_RENDER;
+            }
+            String href = link.getHref();
+            if (endsWithIgnoreCase(href, ".jpg") || endsWithIgnoreCase(href, ".jpeg")
+                    || endsWithIgnoreCase(href, ".png")) {
+                best = IMAGE_EXTENSION;
+            }
+        }
+        return best;
+    }
+
+    private static int indexOfSameImage(ImageSearchResponseDto.Item[] picked, int count,
+                                        ImageSearchResponseDto.Item item) {
+        String id = identity(item);
+        if (id == null) {
+            return -1;
+        }
+        for (int i = 0; i < count; i++) {
+            if (id.equals(identity(picked[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** nasa_id, or the item's collection href for the odd result that lacks one. */
+    private static String identity(ImageSearchResponseDto.Item item) {
+        ImageSearchResponseDto.Data data = firstData(item);
+        return data != null && data.getNasaId() != null ? data.getNasaId() : item.getHref();
+    }
+
+    private static ImageSearchResponseDto.Data firstData(ImageSearchResponseDto.Item item) {
+        List<ImageSearchResponseDto.Data> data = item.getData();
+        if (data == null) {
+            return null;
+        }
+        for (int i = 0, n = data.size(); i < n; i++) {
+            if (data.get(i) != null) {
+                return data.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean keywordMatches(List<String> keywords, Term term) {
+        if (keywords == null) {
+            return false;
+        }
+        for (int i = 0, n = keywords.size(); i < n; i++) {
+            if (term.foundIn(keywords.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Distinct topic words of three or more letters or digits; computed once per deck. */
+    static Term[] terms(String topic) {
+        if (topic == null) {
+            return new Term[0];
+        }
+        String lower = topic.toLowerCase(Locale.ROOT);
+        Term[] terms = new Term[4];
+        int count = 0;
+        for (int i = 0, n = lower.length(); i < n; ) {
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+            }
+            if (i - start >= 3 && !contains(terms, count, lower, start, i)) {
+                if (count == terms.length) {
+                    terms = Arrays.copyOf(terms, count * 2);
+                }
+                terms[count++] = Term.of(lower.substring(start, i));
+            }
+            i++;
+        }
+        return Arrays.copyOf(terms, count);
+    }
+
+    private static boolean contains(Term[] terms, int count, String text, int start, int end) {
+        for (int i = 0; i < count; i++) {
+            String lower = terms[i].lower();
+            if (lower.length() == end - start && text.startsWith(lower, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A topic word in the spellings titles and keywords actually use. Matching each with the intrinsified
+     * {@code String.indexOf} is several times faster than a case-insensitive scan, at the cost of missing
+     * odd mixed-case spellings.
+     */
+    record Term(String lower, String capitalized, String upper) {
+
+        static Term of(String lower) {
+            return new Term(lower, Character.toUpperCase(lower.charAt(0)) + lower.substring(1),
+                    lower.toUpperCase(Locale.ROOT));
+        }
+
+        boolean foundIn(String text) {
+            return text != null
+                    && (text.contains(lower) || text.contains(capitalized) || text.contains(upper));
+        }
+    }
+
+    private static boolean endsWithIgnoreCase(String text, String suffix) {
+        return text.regionMatches(true, text.length() - suffix.length(), suffix, 0, suffix.length());
+    }
+}
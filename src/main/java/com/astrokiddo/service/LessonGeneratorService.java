@@ -2,43 +2,196 @@ package com.astrokiddo.service;
 
 import com.astrokiddo.ai.CloudflareAiRecords;
 import com.astrokiddo.ai.CloudflareAiService;
+import com.astrokiddo.config.GenerationProperties;
+import com.astrokiddo.dto.DeckStreamEventDto;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
 import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.metrics.PipelineMetrics;
 import com.astrokiddo.model.LessonDeck;
 import com.astrokiddo.model.Slide;
 import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.resilience.UpstreamUnavailableException;
+import com.astrokiddo.store.DeckCodec;
+import com.astrokiddo.store.DeckSnapshot;
 import com.astrokiddo.templates.ContentTemplateEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class LessonGeneratorService {
 
+    private static final Logger log = LoggerFactory.getLogger(LessonGeneratorService.class);
+
+    private static final int DECK_IMAGES = 3;
+
     private final ContentTemplateEngine engine = new ContentTemplateEngine();
+    private final ImageRanker ranker = new ImageRanker();
     private final NasaReactiveCache cache;
     private final CloudflareAiService aiService;
+    private final GenerationProperties properties;
+    private final TopicPopularity popularity;
+    private final PipelineMetrics metrics;
+    private final DeckCodec codec;
+    private final SingleFlight<GenerationKey, DeckInputs> inFlight = new SingleFlight<>();
 
-    public LessonGeneratorService(NasaReactiveCache cache, CloudflareAiService aiService) {
+    public LessonGeneratorService(NasaReactiveCache cache, CloudflareAiService aiService,
+                                  GenerationProperties properties, TopicPopularity popularity,
+                                  PipelineMetrics metrics, DeckCodec codec) {
         this.cache = cache;
         this.aiService = aiService;
+        this.properties = properties;
+        this.popularity = popularity;
+        this.metrics = metrics;
+        this.codec = codec;
+    }
+
+    public Mono<DeckSnapshot> generate(GenerateDeckRequestDto req) {
+        String topic = req.getTopic().trim();
+        String gradeLevel = req.getGradeLevel();
+        GenerationKey key = GenerationKey.of(req);
+        popularity.record(key);
+        return metrics.timed("generate", inFlight.execute(key, () -> fetchInputs(key))
+                .map(inputs -> buildDeck(topic, gradeLevel, inputs.images(), inputs.enrichment())));
     }
 
-    public Mono<LessonDeck> generate(GenerateDeckRequestDto req) {
+    public Flux<DeckStreamEventDto> generateStream(GenerateDeckRequestDto req) {
         String topic = req.getTopic().trim();
-        Mono<ImageSearchResponseDto> images =
-                cache.searchImages(topic, "image", null, null)
+        String gradeLevel = req.getGradeLevel();
+        popularity.record(GenerationKey.of(req));
+        Flux<CloudflareAiRecords.EnrichmentField> fields = enrichFields(req).cache();
+        Flux<DeckStreamEventDto> events = searchImages(topic).flatMapMany(imgDto -> {
+            LessonDeck draft = assembleDeck(topic, gradeLevel, imgDto, null);
+            List<CloudflareAiRecords.EnrichmentField> received = new ArrayList<>();
+            AtomicReference<LessonDeck> current = new AtomicReference<>(draft);
+            Flux<DeckStreamEventDto> patches = fields.concatMap(field -> {
+                received.add(field);
+                LessonDeck next = rebuild(draft, topic, gradeLevel, imgDto, partialEnrichment(received));
+                Flux<DeckStreamEventDto> changed = slidePatches(current.get(), next);
+                current.set(next);
+                return changed;
+            });
+            Mono<DeckStreamEventDto> complete = Mono.fromSupplier(() -> {
+                LessonDeck deck = rebuild(draft, topic, gradeLevel, imgDto, validEnrichment(received));
+                return DeckStreamEventDto.complete(deck, codec.freeze(deck));
+            });
+            return Flux.concat(Mono.just(DeckStreamEventDto.deck(draft)), patches, complete);
+        });
+        // subscribe to the enrichment branch right away so the AI call overlaps the image search
+        return Flux.merge(fields.then(Mono.empty()), events);
+    }
+
+    private LessonDeck rebuild(LessonDeck draft, String topic, String gradeLevel, ImageSearchResponseDto imgDto,
+                               CloudflareAiRecords.EnrichmentResponse enrichment) {
+        LessonDeck deck = assembleDeck(topic, gradeLevel, imgDto, enrichment);
+        deck.setId(draft.getId());
+        deck.setCreatedAt(draft.getCreatedAt());
+        return deck;
+    }
+
+    private CloudflareAiRecords.EnrichmentResponse partialEnrichment(List<CloudflareAiRecords.EnrichmentField> fields) {
+        try {
+            return aiService.partial(fields);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private CloudflareAiRecords.EnrichmentResponse validEnrichment(List<CloudflareAiRecords.EnrichmentField> fields) {
+        if (fields.isEmpty()) {
+            return null;
+        }
+        try {
+            return aiService.validated(fields);
+        } catch (RuntimeException ex) {
+            log.debug("Discarding streamed enrichment: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private Flux<DeckStreamEventDto> slidePatches(LessonDeck draft, LessonDeck enriched) {
+        List<DeckStreamEventDto> patches = new ArrayList<>();
+        for (int i = 0; i < enriched.getSlides().size(); i++) {
+            Slide before = draft.getSlides().get(i);
+            Slide after = enriched.getSlides().get(i);
+            if (!Objects.equals(before.getText(), after.getText())
+                    || !Objects.equals(before.getAttribution(), after.getAttribution())) {
+                patches.add(DeckStreamEventDto.slide(enriched.getId(), i, after));
+            }
+        }
+        return Flux.fromIterable(patches);
+    }
+
+    private Mono<ImageSearchResponseDto> searchImages(String topic) {
+        return timed("images", topic, cache.searchImages(topic, "image", null, null)
+                .timeout(properties.getImageDeadline())
                 .switchIfEmpty(Mono.just(new ImageSearchResponseDto()))
-                .onErrorReturn(new ImageSearchResponseDto());
-        return images.flatMap(imgDto ->
-                aiService.enrich(req.getTopic(), req.getGradeLevel())
-                        .onErrorResume(ex -> Mono.empty())
-                        .map(enrichment -> buildDeck(topic, req.getGradeLevel(), imgDto, enrichment))
-                        .switchIfEmpty(Mono.defer(() -> Mono.just(buildDeck(topic, req.getGradeLevel(), imgDto, null))))
-        );
+                .onErrorResume(ex -> {
+                    metrics.fallback("images", fallbackReason(ex));
+                    return Mono.just(new ImageSearchResponseDto());
+                }));
+    }
+
+    private Mono<Optional<CloudflareAiRecords.EnrichmentResponse>> enrich(String topic, String gradeLevel) {
+        return timed("enrichment", topic, aiService.enrich(topic, gradeLevel)
+                .timeout(properties.getEnrichmentDeadline())
+                .map(Optional::of)
+                .onErrorResume(ex -> {
+                    log.debug("Template-only deck for '{}': {}", topic, ex.toString());
+                    metrics.fallback("enrichment", fallbackReason(ex));
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Optional.empty()));
+    }
+
+    private Flux<CloudflareAiRecords.EnrichmentField> enrichFields(GenerateDeckRequestDto req) {
+        return Flux.defer(() -> {
+            long started = System.nanoTime();
+            return metrics.timed("enrichment-stream", aiService.enrichFields(req.getTopic(), req.getGradeLevel())
+                    .take(properties.getEnrichmentDeadline()))
+                    .onErrorResume(ex -> {
+                        metrics.fallback("enrichment-stream", fallbackReason(ex));
+                        return Flux.empty();
+                    })
+                    .doFinally(signal -> log.debug("Stage enrichment-stream for '{}' ended with {} after {} ms",
+                            req.getTopic(), signal, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+        });
+    }
+
+    /**
+     * Inputs shared by every request coalesced on {@code key}, so they are fetched for the normalized topic and
+     * grade: whichever request arrives first, all of them get the same images and enrichment text. Only the
+     * deck's own topic keeps the caller's spelling.
+     */
+    private Mono<DeckInputs> fetchInputs(GenerationKey key) {
+        String gradeLevel = key.gradeLevel().isEmpty() ? null : key.gradeLevel();
+        return timed("inputs", key.topic(), Mono.zip(searchImages(key.topic()), enrich(key.topic(), gradeLevel))
+                .map(t -> new DeckInputs(t.getT1(), t.getT2().orElse(null))));
+    }
+
+    private <T> Mono<T> timed(String stage, String topic, Mono<T> source) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return metrics.timed(stage, source).doFinally(signal -> log.debug("Stage {} for '{}' ended with {} after {} ms", stage, topic,
+                    signal, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+        });
+    }
+
+    private static String fallbackReason(Throwable ex) {
+        if (ex instanceof UpstreamUnavailableException) {
+            return "upstream-unavailable";
+        }
+        return ex instanceof TimeoutException ? "deadline" : "error";
     }
 
     private List<ImageSearchResponseDto.Item> extractImageItems(ImageSearchResponseDto resp) {
@@ -48,10 +201,16 @@ public class LessonGeneratorService {
         return resp.getCollection().getItems();
     }
 
-    private LessonDeck buildDeck(String topic, String gradeLevel, ImageSearchResponseDto imgDto,
-                                 CloudflareAiRecords.EnrichmentResponse enrichment) {
-        List<ImageSearchResponseDto.Item> items = new ArrayList<>(extractImageItems(imgDto));
-        items.removeIf(Objects::isNull);
+    /** The finished deck, frozen: it is serialized here once and never changes afterwards. */
+    DeckSnapshot buildDeck(String topic, String gradeLevel, ImageSearchResponseDto imgDto,
+                           CloudflareAiRecords.EnrichmentResponse enrichment) {
+        return codec.freeze(assembleDeck(topic, gradeLevel, imgDto, enrichment));
+    }
+
+    /** Builds the deck as a mutable bean; only drafts that are still being streamed stay in this form. */
+    LessonDeck assembleDeck(String topic, String gradeLevel, ImageSearchResponseDto imgDto,
+                            CloudflareAiRecords.EnrichmentResponse enrichment) {
+        List<ImageSearchResponseDto.Item> items = ranker.rank(topic, extractImageItems(imgDto), DECK_IMAGES);
 
         ImageSearchResponseDto.Item keyVisualItem = !items.isEmpty() ? items.get(0) : null;
         ImageSearchResponseDto.Item explanationItem = items.size() > 1 ? items.get(1) : keyVisualItem;
@@ -132,4 +291,7 @@ public class LessonGeneratorService {
         String normalized = gradeLevel.trim();
         return normalized.isEmpty() ? null : normalized;
     }
+
+    private record DeckInputs(ImageSearchResponseDto images, CloudflareAiRecords.EnrichmentResponse enrichment) {
+    }
 }
@@ -0,0 +1,38 @@
+package com.astrokiddo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requested deck topics so warm-up can follow what teachers actually ask for. Bounded, and topics
+ * that stop being requested age out after a week.
+ */
+@Component
+public class TopicPopularity {
+
+    private final Cache<String, LongAdder> counts = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofDays(7))
+            .build();
+
+    public void record(GenerationKey key) {
+        if (!key.topic().isEmpty()) {
+            counts.get(key.topic(), k -> new LongAdder()).increment();
+        }
+    }
+
+    public List<String> top(int n) {
+        return counts.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.config.DeckStoreProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class CaffeineDeckStore implements DeckStore, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CaffeineDeckStore.class);
+
+    private final Cache<String, DeckSnapshot> heap;
+    private final OffHeapDeckTier offHeap;
+    private final DeckCodec codec;
+
+    public CaffeineDeckStore(DeckStoreProperties props, DeckCodec codec) {
+        this(props, codec, ForkJoinPool.commonPool());
+    }
+
+    /** {@code executor} runs Caffeine's maintenance, and with it demotion; tests pass a synchronous one. */
+    CaffeineDeckStore(DeckStoreProperties props, DeckCodec codec, Executor executor) {
+        this.codec = codec;
+        this.offHeap = props.getOffHeap().isEnabled()
+                ? new OffHeapDeckTier(props.getOffHeap().getMaxSize().toBytes(), props.getTtl())
+                : null;
+        this.heap = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumSize(props.getMaxEntries())
+                .expireAfter(new CreatedAtExpiry<String, DeckSnapshot>(props.getTtl(), DeckSnapshot::createdAt))
+                .evictionListener(this::demote)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public DeckSnapshot save(DeckSnapshot snapshot) {
+        heap.put(snapshot.id(), snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public Optional<DeckSnapshot> get(String id) {
+        if (offHeap == null) {
+            return Optional.ofNullable(heap.getIfPresent(id));
+        }
+        // promote inside the heap's compute: concurrent readers of the id wait for it instead of missing
+        // the deck, and the off-heap copy is dropped only once the decoded deck is about to be on-heap
+        return Optional.ofNullable(heap.get(id, key -> offHeap.get(key).map(bytes -> {
+            DeckSnapshot promoted = codec.decode(bytes);
+            offHeap.remove(key, bytes);
+            return promoted;
+        }).orElse(null)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, heap, "deck-store");
+        if (offHeap != null) {
+            offHeap.bindTo(registry, "deck-store-off-heap");
+        }
+    }
+
+    private void demote(String id, DeckSnapshot snapshot, RemovalCause cause) {
+        if (offHeap == null || cause != RemovalCause.SIZE || id == null || snapshot == null) {
+            return;
+        }
+        try {
+            offHeap.put(id, snapshot.createdAt(), codec.encode(snapshot));
+        } catch (RuntimeException ex) {
+            log.warn("Could not move deck {} off-heap: {}", id, ex.getMessage());
+        }
+    }
+}
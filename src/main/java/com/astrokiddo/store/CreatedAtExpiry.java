@@ -0,0 +1,41 @@
+package com.astrokiddo.store;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+public class CreatedAtExpiry<K, V> implements Expiry<K, V> {
+    private final Duration ttl;
+    private final Function<V, Instant> createdAt;
+
+    public CreatedAtExpiry(Duration ttl, Function<V, Instant> createdAt) {
+        this.ttl = ttl;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return remaining(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return remaining(value);
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private long remaining(V value) {
+        Instant created = createdAt.apply(value);
+        if (created == null) {
+            return ttl.toNanos();
+        }
+        Duration left = ttl.minus(Duration.between(created, Instant.now()));
+        return left.isNegative() ? 0 : left.toNanos();
+    }
+}
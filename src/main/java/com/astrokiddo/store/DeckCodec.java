@@ -0,0 +1,83 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.web.JsonPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+public class DeckCodec {
+
+    private static final byte FORMAT = 1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final ObjectMapper jsonMapper;
+
+    public DeckCodec(ObjectMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    /** Serializes the deck with the application's JSON settings, the one time it is ever serialized. */
+    public DeckSnapshot freeze(LessonDeck deck) {
+        try {
+            return new DeckSnapshot(deck.getId(), deck.getTopic(), deck.getCreatedAt(),
+                    JsonPayload.of(jsonMapper.writeValueAsBytes(deck)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode deck " + deck.getId(), e);
+        }
+    }
+
+    /** A private, mutable copy of a snapshot's deck for code that needs the object graph, like exports. */
+    public LessonDeck thaw(DeckSnapshot snapshot) {
+        try {
+            return jsonMapper.readValue(snapshot.json().bytes(), LessonDeck.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode deck " + snapshot.id(), e);
+        }
+    }
+
+    /**
+     * Store record: a format byte, the creation time in epoch millis, id, topic and ETag (each
+     * length-prefixed) and then the JSON, so reading a deck back never runs Jackson.
+     */
+    public byte[] encode(DeckSnapshot snapshot) {
+        byte[] id = snapshot.id().getBytes(StandardCharsets.UTF_8);
+        byte[] topic = (snapshot.topic() != null ? snapshot.topic() : "").getBytes(StandardCharsets.UTF_8);
+        byte[] etag = snapshot.etag().getBytes(StandardCharsets.US_ASCII);
+        byte[] json = snapshot.json().bytes();
+        return ByteBuffer.allocate(1 + 8 + 2 + id.length + 2 + topic.length + 2 + etag.length + json.length)
+                .put(FORMAT)
+                .putLong(snapshot.createdAt() != null ? snapshot.createdAt().toEpochMilli() : NO_TIMESTAMP)
+                .putShort((short) id.length).put(id)
+                .putShort((short) topic.length).put(topic)
+                .putShort((short) etag.length).put(etag)
+                .put(json)
+                .array();
+    }
+
+    public DeckSnapshot decode(ByteBuffer bytes) {
+        ByteBuffer record = bytes.duplicate();
+        if (!record.hasRemaining() || record.get() != FORMAT) {
+            throw new IllegalArgumentException("Not a deck record");
+        }
+        long millis = record.getLong();
+        String id = string(record, StandardCharsets.UTF_8);
+        String topic = string(record, StandardCharsets.UTF_8);
+        String etag = string(record, StandardCharsets.US_ASCII);
+        byte[] json = new byte[record.remaining()];
+        record.get(json);
+        return new DeckSnapshot(id, topic, millis != NO_TIMESTAMP ? Instant.ofEpochMilli(millis) : null,
+                new JsonPayload(json, etag));
+    }
+
+    private static String string(ByteBuffer record, Charset charset) {
+        byte[] bytes = new byte[record.getShort() & 0xFFFF];
+        record.get(bytes);
+        return new String(bytes, charset);
+    }
+}
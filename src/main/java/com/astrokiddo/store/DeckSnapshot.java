@@ -0,0 +1,17 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.web.JsonPayload;
+
+import java.time.Instant;
+
+/**
+ * A stored deck, frozen: the JSON every read serves, encoded once when the deck was saved, plus the few
+ * fields the store and exports need without parsing it. The generator's mutable {@code LessonDeck} is not
+ * kept, so nothing can change a deck after its bytes and ETag were computed.
+ */
+public record DeckSnapshot(String id, String topic, Instant createdAt, JsonPayload json) {
+
+    public String etag() {
+        return json.etag();
+    }
+}
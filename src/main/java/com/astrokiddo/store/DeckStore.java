@@ -1,21 +1,11 @@
 package com.astrokiddo.store;
 
-import com.astrokiddo.model.LessonDeck;
-import org.springframework.stereotype.Component;
-
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
-@Component
-public class DeckStore {
-    private final Map<String, LessonDeck> store = new ConcurrentHashMap<>();
+public interface DeckStore {
 
-    public void save(LessonDeck d) {
-        store.put(d.getId(), d);
-    }
+    /** Stores the frozen deck and returns it, so callers can chain on the saved snapshot. */
+    DeckSnapshot save(DeckSnapshot snapshot);
 
-    public Optional<LessonDeck> get(String id) {
-        return Optional.ofNullable(store.get(id));
-    }
+    Optional<DeckSnapshot> get(String id);
 }
@@ -0,0 +1,47 @@
+package com.astrokiddo.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+class OffHeapDeckTier {
+    private final Cache<String, Entry> entries;
+
+    OffHeapDeckTier(long maxBytes, Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Entry e) -> e.bytes().capacity())
+                .expireAfter(new CreatedAtExpiry<String, Entry>(ttl, Entry::createdAt))
+                .recordStats()
+                .build();
+    }
+
+    void put(String id, Instant createdAt, byte[] encoded) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.length);
+        direct.put(encoded).flip();
+        entries.put(id, new Entry(direct.asReadOnlyBuffer(), createdAt));
+    }
+
+    Optional<ByteBuffer> get(String id) {
+        Entry e = entries.getIfPresent(id);
+        return e == null ? Optional.empty() : Optional.of(e.bytes());
+    }
+
+    /** Removes the entry only if it still holds {@code bytes}, so a newer demotion of the same id survives. */
+    void remove(String id, ByteBuffer bytes) {
+        entries.asMap().computeIfPresent(id, (key, e) -> e.bytes() == bytes ? null : e);
+    }
+
+    void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, entries, name);
+    }
+
+    private record Entry(ByteBuffer bytes, Instant createdAt) {
+    }
+}
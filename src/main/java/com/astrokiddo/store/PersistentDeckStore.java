@@ -0,0 +1,59 @@
+package com.astrokiddo.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class PersistentDeckStore implements DeckStore, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentDeckStore.class);
+
+    private final CaffeineDeckStore memory;
+    private final SegmentLog segmentLog;
+    private final DeckCodec codec;
+
+    public PersistentDeckStore(CaffeineDeckStore memory, SegmentLog segmentLog, DeckCodec codec) {
+        this.memory = memory;
+        this.segmentLog = segmentLog;
+        this.codec = codec;
+    }
+
+    @Override
+    public DeckSnapshot save(DeckSnapshot snapshot) {
+        memory.save(snapshot);
+        try {
+            Instant createdAt = snapshot.createdAt() != null ? snapshot.createdAt() : Instant.now();
+            segmentLog.append(snapshot.id(), createdAt.toEpochMilli(), codec.encode(snapshot));
+        } catch (RuntimeException ex) {
+            log.warn("Could not persist deck {}: {}", snapshot.id(), ex.getMessage());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Optional<DeckSnapshot> get(String id) {
+        Optional<DeckSnapshot> cached = memory.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return segmentLog.read(id).map(bytes -> memory.save(codec.decode(bytes)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        memory.bindTo(registry);
+        FunctionCounter.builder("cache.disk.write.failures", segmentLog, SegmentLog::failedWrites)
+                .tag("cache", "deck-store")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        segmentLog.close();
+    }
+}
@@ -0,0 +1,442 @@
+package com.astrokiddo.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only key/value log made of fixed-size memory-mapped segment files.
+ * <p>
+ * Record layout: magic(4) crc(4) timestamp(8) keyLength(2) valueLength(4) key value.
+ * All file mutations happen on a single writer thread; readers get read-only slices of the mapping.
+ * A batch that fails to write is retried a few times and then given up: its records stop being served
+ * from memory and are counted in {@link #failedWrites()}.
+ */
+public class SegmentLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final int MAGIC = 0x414B4C31;
+    private static final int HEADER_BYTES = 22;
+    private static final String SUFFIX = ".seg";
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 300;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Duration ttl;
+    private final int batchSize;
+    private final double compactionThreshold;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Write> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    // writes from a failed batch, retried before anything newer; only touched by the writer thread
+    private final Deque<Write> retries = new ArrayDeque<>();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService writer;
+    private volatile boolean closed;
+    private Segment active;
+
+    public SegmentLog(Path dir, int segmentBytes, long maxBytes, Duration ttl,
+                      int batchSize, double compactionThreshold) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(2, maxBytes / segmentBytes);
+        this.ttl = ttl;
+        this.batchSize = Math.max(1, batchSize);
+        this.compactionThreshold = compactionThreshold;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "segment-log-" + dir.getFileName());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Files.createDirectories(dir);
+            long started = System.nanoTime();
+            recover();
+            log.info("Recovered {} entries from {} segment(s) in {} in {} ms", index.size(), segments.size(), dir,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open segment log in " + dir, e);
+        }
+        writer.scheduleWithFixedDelay(this::maintain, MAINTENANCE_INTERVAL_SECONDS, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void append(String key, long timestamp, byte[] value) {
+        if (closed) {
+            throw new IllegalStateException("Segment log " + dir + " is closed");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF || HEADER_BYTES + keyBytes.length + value.length > segmentBytes) {
+            log.warn("Skipping oversized record {} ({} bytes) for {}", key, value.length, dir);
+            return;
+        }
+        pending.put(key, value);
+        queue.add(new Write(key, keyBytes, timestamp, value, 0));
+        if (drainScheduled.compareAndSet(false, true)) {
+            writer.execute(this::drain);
+        }
+    }
+
+    public Optional<ByteBuffer> read(String key) {
+        byte[] queued = pending.get(key);
+        if (queued != null) {
+            return Optional.of(ByteBuffer.wrap(queued).asReadOnlyBuffer());
+        }
+        Location loc = index.get(key);
+        if (loc == null || isExpired(loc.timestamp())) {
+            return Optional.empty();
+        }
+        return Optional.of(loc.segment().slice(loc.valueOffset(), loc.valueLength()));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Records that were appended but never made it to disk. */
+    public long failedWrites() {
+        return failedWrites.get();
+    }
+
+    /** Waits until everything appended so far has been written, or has failed; for tests. */
+    void flush() {
+        awaitWriter(this::drain);
+    }
+
+    /** Runs a maintenance pass now, after the queued writes; for tests. */
+    void maintainNow() {
+        awaitWriter(() -> {
+            drain();
+            maintain();
+        });
+    }
+
+    private void awaitWriter(Runnable task) {
+        try {
+            writer.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.execute(this::drain);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Timed out flushing segment log {}", dir);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Segment seg : segments.values()) {
+            seg.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            String name = path.getFileName().toString();
+            long id = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            Segment seg = Segment.open(path, id, segmentBytes);
+            scan(seg, i == files.size() - 1);
+            segments.put(id, seg);
+        }
+        active = segments.isEmpty() ? createSegment(0) : segments.lastEntry().getValue();
+    }
+
+    private void scan(Segment seg, boolean verify) {
+        ByteBuffer buf = seg.buffer;
+        int pos = 0;
+        while (pos + HEADER_BYTES <= buf.capacity() && buf.getInt(pos) == MAGIC) {
+            int keyLength = buf.getShort(pos + 16) & 0xFFFF;
+            int valueLength = buf.getInt(pos + 18);
+            int end = pos + HEADER_BYTES + keyLength + valueLength;
+            if (valueLength < 0 || end > buf.capacity()) {
+                break;
+            }
+            // only the tail segment can hold a torn write; sealed segments were forced before rolling
+            if (verify && buf.getInt(pos + 4) != checksum(buf, pos, end)) {
+                log.warn("Truncating {} at offset {} after checksum mismatch", seg.path, pos);
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buf.get(pos + HEADER_BYTES, key);
+            long timestamp = buf.getLong(pos + 8);
+            index(new String(key, StandardCharsets.UTF_8),
+                    new Location(seg, pos, end - pos, pos + HEADER_BYTES + keyLength, valueLength, timestamp));
+            pos = end;
+        }
+        if (pos + 4 <= buf.capacity() && buf.getInt(pos) != 0) {
+            for (int i = pos; i < buf.capacity(); i++) {
+                buf.put(i, (byte) 0);
+            }
+        }
+        seg.position = pos;
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<Write> batch = new ArrayList<>(batchSize);
+        List<Location> written = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                Write w;
+                while (batch.size() < batchSize && (w = nextWrite()) != null) {
+                    batch.add(w);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                for (Write each : batch) {
+                    written.add(write(each));
+                }
+                active.force();
+                for (int i = 0; i < batch.size(); i++) {
+                    Write each = batch.get(i);
+                    index(each.key(), written.get(i));
+                    pending.remove(each.key(), each.value());
+                }
+                batch.clear();
+                written.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            retryOrDrop(batch, e);
+        }
+    }
+
+    private Write nextWrite() {
+        Write w = retries.poll();
+        return w != null ? w : queue.poll();
+    }
+
+    /**
+     * Puts the failed batch back in front of the queue, minus records a newer append has replaced. Records
+     * out of attempts, or failing while the log shuts down, leave {@code pending} so memory does not leak.
+     */
+    private void retryOrDrop(List<Write> batch, Exception e) {
+        List<Write> dropped = new ArrayList<>();
+        for (Write w : batch) {
+            if (pending.get(w.key()) != w.value()) {
+                continue;
+            }
+            if (w.attempts() + 1 < MAX_WRITE_ATTEMPTS) {
+                retries.add(w.retried());
+            } else {
+                dropped.add(w);
+            }
+        }
+        if (!retries.isEmpty() || !queue.isEmpty()) {
+            try {
+                writer.schedule(this::drain, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                dropped.addAll(retries);
+                retries.clear();
+            }
+        }
+        for (Write w : dropped) {
+            pending.remove(w.key(), w.value());
+        }
+        failedWrites.addAndGet(dropped.size());
+        log.error("Segment log {} write failed, {} record(s) to retry, {} dropped: {}",
+                dir, retries.size(), dropped.size(), e.getMessage(), e);
+    }
+
+    private Location write(Write w) throws IOException {
+        int length = HEADER_BYTES + w.keyBytes().length + w.value().length;
+        ensureCapacity(length);
+        ByteBuffer buf = active.buffer;
+        int pos = active.position;
+        buf.putInt(pos, MAGIC);
+        buf.putLong(pos + 8, w.timestamp());
+        buf.putShort(pos + 16, (short) w.keyBytes().length);
+        buf.putInt(pos + 18, w.value().length);
+        buf.put(pos + HEADER_BYTES, w.keyBytes());
+        buf.put(pos + HEADER_BYTES + w.keyBytes().length, w.value());
+        buf.putInt(pos + 4, checksum(buf, pos, pos + length));
+        active.position = pos + length;
+        return new Location(active, pos, length, pos + HEADER_BYTES + w.keyBytes().length,
+                w.value().length, w.timestamp());
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (active.position + length <= active.buffer.capacity()) {
+            return;
+        }
+        active.force();
+        active = createSegment(active.id + 1);
+        while (segments.size() > maxSegments) {
+            drop(segments.firstEntry().getValue());
+        }
+    }
+
+    private void maintain() {
+        try {
+            for (Segment seg : List.copyOf(segments.values())) {
+                if (seg == active) {
+                    continue;
+                }
+                if (isExpired(seg.newestTimestamp)) {
+                    drop(seg);
+                } else if (seg.live.get() < seg.position * compactionThreshold) {
+                    compact(seg);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Segment log {} maintenance failed: {}", dir, e.getMessage(), e);
+        }
+    }
+
+    private void compact(Segment seg) throws IOException {
+        int moved = 0;
+        for (Map.Entry<String, Location> e : List.copyOf(index.entrySet())) {
+            Location loc = e.getValue();
+            if (loc.segment() != seg || isExpired(loc.timestamp())) {
+                continue;
+            }
+            ensureCapacity(loc.length());
+            int pos = active.position;
+            active.buffer.put(pos, seg.buffer, loc.offset(), loc.length());
+            active.position = pos + loc.length();
+            index(e.getKey(), new Location(active, pos, loc.length(), pos + (loc.valueOffset() - loc.offset()),
+                    loc.valueLength(), loc.timestamp()));
+            moved++;
+        }
+        active.force();
+        drop(seg);
+        log.debug("Compacted segment {} of {}, moved {} live record(s)", seg.id, dir, moved);
+    }
+
+    private void drop(Segment seg) throws IOException {
+        if (segments.remove(seg.id) == null) {
+            return;
+        }
+        index.entrySet().removeIf(e -> e.getValue().segment() == seg);
+        seg.close();
+        Files.deleteIfExists(seg.path);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment seg = Segment.open(dir.resolve(String.format("%016d%s", id, SUFFIX)), id, segmentBytes);
+        segments.put(id, seg);
+        return seg;
+    }
+
+    private void index(String key, Location loc) {
+        Location prev = index.put(key, loc);
+        if (prev != null) {
+            prev.segment().live.addAndGet(-prev.length());
+        }
+        loc.segment().live.addAndGet(loc.length());
+        loc.segment().newestTimestamp = Math.max(loc.segment().newestTimestamp, loc.timestamp());
+    }
+
+    private boolean isExpired(long timestamp) {
+        return timestamp < System.currentTimeMillis() - ttl.toMillis();
+    }
+
+    private static int checksum(ByteBuffer buf, int start, int end) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(start + 8, end - start - 8));
+        return (int) crc.getValue();
+    }
+
+    private record Write(String key, byte[] keyBytes, long timestamp, byte[] value, int attempts) {
+
+        Write retried() {
+            return new Write(key, keyBytes, timestamp, value, attempts + 1);
+        }
+    }
+
+    private record Location(Segment segment, int offset, int length, int valueOffset, int valueLength,
+                            long timestamp) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong live = new AtomicLong();
+        private volatile long newestTimestamp;
+        private int position;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long id, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), segmentBytes);
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        ByteBuffer slice(int offset, int length) {
+            return buffer.slice(offset, length).asReadOnlyBuffer();
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.astrokiddo.web;
+
+import com.astrokiddo.config.CompressionProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.service.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a {@link JsonPayload} as a JSON response, gzip-compressed when the client's Accept-Encoding
+ * allows it. The gzip variant is compressed once per payload on a small bounded scheduler, never on an
+ * event loop, and then kept for as long as the payload itself (weak identity keys, like
+ * {@link JsonPayloads}), so a stored deck or APOD entry is compressed at most once while it stays cached.
+ * <p>
+ * Small payloads, clients that do not take gzip and a full compression queue all get the plain bytes:
+ * compression is never worth a 503. Brotli is not offered, as there is no pure-Java encoder for it.
+ */
+@Component
+public class CompressedPayloads implements DisposableBean {
+
+    private static final String GZIP = "gzip";
+
+    private final Cache<JsonPayload, byte[]> variants;
+    private final CompressionProperties props;
+    private final PipelineMetrics metrics;
+    private final SingleFlight<String, byte[]> compressions = new SingleFlight<>();
+    private final Scheduler scheduler;
+
+    public CompressedPayloads(Cache<JsonPayload, byte[]> gzipVariantCache, CompressionProperties props,
+                              PipelineMetrics metrics) {
+        this.variants = gzipVariantCache;
+        this.props = props;
+        this.metrics = metrics;
+        this.scheduler = Schedulers.newBoundedElastic(props.getThreads(), props.getQueueCapacity(), "compress");
+    }
+
+    /** {@code cacheControl} may be null for responses that should not be cached. */
+    public Mono<ResponseEntity<DataBuffer>> respond(JsonPayload payload, String acceptEncoding,
+                                                    CacheControl cacheControl) {
+        if (!props.isEnabled()) {
+            return Mono.just(json(payload.etag(), cacheControl).body(payload.buffer()));
+        }
+        if (payload.bytes().length < props.getMinSize().toBytes() || !acceptsGzip(acceptEncoding)) {
+            return Mono.just(plain(payload, cacheControl));
+        }
+        byte[] cached = variants.getIfPresent(payload);
+        return (cached != null ? Mono.just(cached) : compress(payload))
+                .map(gzipped -> json(variantEtag(payload.etag()), cacheControl)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                        .body(wrap(gzipped)))
+                .onErrorResume(RejectedExecutionException.class, ex -> Mono.just(plain(payload, cacheControl)));
+    }
+
+    private static ResponseEntity<DataBuffer> plain(JsonPayload payload, CacheControl cacheControl) {
+        return json(payload.etag(), cacheControl).varyBy(HttpHeaders.ACCEPT_ENCODING).body(payload.buffer());
+    }
+
+    private static ResponseEntity.BodyBuilder json(String etag, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag);
+        return cacheControl != null ? builder.cacheControl(cacheControl) : builder;
+    }
+
+    private Mono<byte[]> compress(JsonPayload payload) {
+        return compressions.execute(payload.etag(), () -> metrics.timed("compress.gzip",
+                        Mono.fromCallable(() -> gzip(payload.bytes())).subscribeOn(scheduler)))
+                .doOnNext(bytes -> variants.put(payload, bytes));
+    }
+
+    private byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(props.getLevel());
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** A representation with another encoding needs its own strong ETag: {@code "abc"} becomes {@code "abc-gz"}. */
+    private static String variantEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /** True when gzip is listed, or covered by {@code *}, with a non-zero quality. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            boolean accepted = semicolon < 0 || !zeroQuality(part.substring(semicolon + 1));
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (coding.equals("*")) {
+                any = accepted;
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+
+    private static boolean zeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim().toLowerCase(Locale.ROOT);
+            if (p.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(p.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static DataBuffer wrap(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,30 @@
+package com.astrokiddo.web;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A response body serialized once, with a strong ETag over its bytes. {@link #buffer()} wraps the same
+ * array for every response, so serving it again costs neither Jackson nor a copy.
+ */
+public record JsonPayload(byte[] bytes, String etag) {
+
+    private static final int ETAG_BYTES = 16;
+
+    public static JsonPayload of(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new JsonPayload(bytes, "\"" + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public DataBuffer buffer() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+}
@@ -0,0 +1,37 @@
+package com.astrokiddo.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Serialized forms of cached objects (APOD entries), keyed by object identity with weak keys: a payload is
+ * computed the first time its object is served and disappears with it, so a refreshed APOD entry simply
+ * gets a new one. Stored decks carry their own payload, see {@code DeckSnapshot}.
+ */
+@Component
+public class JsonPayloads {
+
+    private final Cache<Object, JsonPayload> cache;
+    private final ObjectMapper objectMapper;
+
+    public JsonPayloads(Cache<Object, JsonPayload> jsonPayloadCache, ObjectMapper objectMapper) {
+        this.cache = jsonPayloadCache;
+        this.objectMapper = objectMapper;
+    }
+
+    public JsonPayload get(Object value) {
+        return cache.get(value, this::serialize);
+    }
+
+    private JsonPayload serialize(Object value) {
+        try {
+            return JsonPayload.of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.astrokiddo.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalJsonFieldParserTest {
+
+    private final IncrementalJsonFieldParser parser = new IncrementalJsonFieldParser(new ObjectMapper());
+
+    @Test
+    void fieldSplitAcrossChunksIsEmittedOnceComplete() {
+        assertTrue(parser.feed("{\"hook\": \"Mars has the tall").isEmpty());
+        List<CloudflareAiRecords.EnrichmentField> hook = parser.feed("est volcano\", \"qu");
+        assertEquals("Mars has the tallest volcano", hook.get(0).value().asText());
+        assertTrue(parser.feed("iz\": \"Which pla").isEmpty());
+        List<CloudflareAiRecords.EnrichmentField> quiz = parser.feed("net?\"}");
+
+        assertEquals(1, quiz.size());
+        assertEquals("quiz", quiz.get(0).name());
+        assertEquals("Which planet?", quiz.get(0).value().asText());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    void fieldsAreEmittedAsSoonAsTheirValueEnds() {
+        List<CloudflareAiRecords.EnrichmentField> first = parser.feed("{\"hook\": \"Hi\", \"quiz\": ");
+        assertEquals(List.of("hook"), names(first));
+        assertFalse(parser.isFinished());
+    }
+
+    @Test
+    void proseAndCodeFenceBeforeTheObjectAreSkipped() {
+        assertTrue(parser.feed("Sure! Here is the lesson:\n").isEmpty());
+        List<CloudflareAiRecords.EnrichmentField> fields = parser.feed("```json\n{\"hook\": \"Hi\"}\n```");
+
+        assertEquals(List.of("hook"), names(fields));
+        assertTrue(parser.isFinished());
+        assertTrue(parser.feed("anything after the object").isEmpty());
+    }
+
+    @Test
+    void nestedValuesAreEmittedWhole() {
+        List<CloudflareAiRecords.EnrichmentField> fields = new ArrayList<>();
+        for (String chunk : List.of("{\"facts\": [\"one\", {\"deep\": [1, ", "2]}], ", "\"glossary\": {\"orbit\": \"path\"}}")) {
+            fields.addAll(parser.feed(chunk));
+        }
+
+        assertEquals(List.of("facts", "glossary"), names(fields));
+        assertEquals(2, fields.get(0).value().get(1).get("deep").get(1).asInt());
+        assertEquals("path", fields.get(1).value().get("orbit").asText());
+    }
+
+    @Test
+    void malformedInputFails() {
+        assertThrows(UncheckedIOException.class, () -> parser.feed("{\"hook\": ]"));
+    }
+
+    private static List<String> names(List<CloudflareAiRecords.EnrichmentField> fields) {
+        return fields.stream().map(CloudflareAiRecords.EnrichmentField::name).toList();
+    }
+}
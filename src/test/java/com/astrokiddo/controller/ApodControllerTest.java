@@ -0,0 +1,132 @@
+package com.astrokiddo.controller;
+
+import com.astrokiddo.config.CompressionProperties;
+import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.web.CompressedPayloads;
+import com.astrokiddo.web.JsonPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ApodControllerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+
+    private final NasaReactiveCache cache = mock(NasaReactiveCache.class);
+    private CompressedPayloads compressed;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        compressed = new CompressedPayloads(Caffeine.newBuilder().weakKeys().build(), new CompressionProperties(),
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        JsonPayloads payloads = new JsonPayloads(Caffeine.newBuilder().weakKeys().build(), new ObjectMapper());
+        client = WebTestClient.bindToController(new ApodController(cache, payloads, compressed)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressed.destroy();
+    }
+
+    @Test
+    void servesAStrongEtagAndAnswersAMatchingIfNoneMatchWith304() {
+        when(cache.getApod(DAY)).thenReturn(Mono.just(apod()));
+
+        String etag = client.get().uri("/api/apod?date=2024-01-15")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=86400, public")
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+        client.get().uri("/api/apod?date=2024-01-15")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void sameEntryKeepsItsEtagAndAStaleOneGetsTheBody() {
+        ApodResponseDto apod = apod();
+        when(cache.getApod(DAY)).thenReturn(Mono.just(apod));
+
+        String first = etag(null);
+        assertEquals(first, etag(null));
+
+        client.get().uri("/api/apod?date=2024-01-15")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0000\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Moon over the observatory");
+    }
+
+    @Test
+    void gzipVariantHasItsOwnEtag() {
+        when(cache.getApod(DAY)).thenReturn(Mono.just(apod()));
+
+        String plain = etag(null);
+        String gzip = etag("gzip");
+
+        assertEquals(plain.substring(0, plain.length() - 1) + "-gz\"", gzip);
+        client.get().uri("/api/apod?date=2024-01-15")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzip)
+                .exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/api/apod?date=2024-01-15")
+                .header(HttpHeaders.IF_NONE_MATCH, gzip)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void placeholderForAMissingDayIsNeitherCachedNorTagged() {
+        when(cache.getApod(DAY)).thenReturn(Mono.empty());
+
+        client.get().uri("/api/apod?date=2024-01-15")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "no-store")
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectBody().jsonPath("$.title").doesNotExist();
+    }
+
+    private String etag(String acceptEncoding) {
+        WebTestClient.RequestHeadersSpec<?> request = client.get().uri("/api/apod?date=2024-01-15");
+        if (acceptEncoding != null) {
+            request = request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request.exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+    }
+
+    private static ApodResponseDto apod() {
+        ApodResponseDto apod = new ApodResponseDto();
+        apod.setDate(DAY.toString());
+        apod.setTitle("Moon over the observatory");
+        apod.setMediaType("image");
+        apod.setUrl("https://apod.nasa.gov/apod/image/2401/moon.jpg");
+        // long enough to be above the gzip threshold
+        apod.setExplanation("The Moon rises behind the dome of a mountain-top observatory. ".repeat(40));
+        return apod;
+    }
+}
@@ -0,0 +1,78 @@
+package com.astrokiddo.controller;
+
+import com.astrokiddo.config.CompressionProperties;
+import com.astrokiddo.export.DeckExportService;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.service.BatchGenerationService;
+import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.store.DeckSnapshot;
+import com.astrokiddo.store.DeckStore;
+import com.astrokiddo.web.CompressedPayloads;
+import com.astrokiddo.web.JsonPayload;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeckControllerTest {
+
+    private final DeckStore store = mock(DeckStore.class);
+    private CompressedPayloads compressed;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        compressed = new CompressedPayloads(Caffeine.newBuilder().weakKeys().build(), new CompressionProperties(),
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        DeckController controller = new DeckController(mock(LessonGeneratorService.class),
+                mock(BatchGenerationService.class), store, mock(DeckExportService.class), compressed);
+        client = WebTestClient.bindToController(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressed.destroy();
+    }
+
+    @Test
+    void storedDeckIsServedWithItsSnapshotEtagAndRevalidatesWith304() {
+        JsonPayload json = JsonPayload.of("{\"id\":\"d1\",\"topic\":\"Mars\"}".getBytes(StandardCharsets.UTF_8));
+        when(store.get("d1")).thenReturn(Optional.of(new DeckSnapshot("d1", "Mars", Instant.now(), json)));
+
+        client.get().uri("/api/decks/d1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, json.etag())
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=600, public")
+                .expectBody().jsonPath("$.topic").isEqualTo("Mars");
+
+        client.get().uri("/api/decks/d1")
+                .header(HttpHeaders.IF_NONE_MATCH, json.etag())
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void changedDeckIsServedAgainDespiteAnOldEtag() {
+        JsonPayload old = JsonPayload.of("{\"id\":\"d1\",\"topic\":\"Mars\"}".getBytes(StandardCharsets.UTF_8));
+        JsonPayload current = JsonPayload.of("{\"id\":\"d1\",\"topic\":\"Red Mars\"}".getBytes(StandardCharsets.UTF_8));
+        when(store.get("d1")).thenReturn(Optional.of(new DeckSnapshot("d1", "Red Mars", Instant.now(), current)));
+
+        client.get().uri("/api/decks/d1")
+                .header(HttpHeaders.IF_NONE_MATCH, old.etag())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, current.etag());
+    }
+}
@@ -0,0 +1,51 @@
+package com.astrokiddo.export;
+
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.model.SlideType;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckPdfRendererTest {
+
+    @Test
+    void onlyWebImageUrlsBecomeLinks() throws IOException {
+        LessonDeck deck = new LessonDeck("Mars");
+        deck.addSlide(slide("https://images-assets.nasa.gov/image/PIA1/PIA1~thumb.jpg"));
+        deck.addSlide(slide("javascript:alert(1)"));
+        deck.addSlide(slide("file:///etc/passwd"));
+        deck.addSlide(slide(null));
+
+        assertEquals(List.of("https://images-assets.nasa.gov/image/PIA1/PIA1~thumb.jpg"),
+                links(new DeckPdfRenderer().render(deck)));
+    }
+
+    private static List<String> links(byte[] pdf) throws IOException {
+        List<String> uris = new ArrayList<>();
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            for (PDPage page : document.getPages()) {
+                for (PDAnnotation annotation : page.getAnnotations()) {
+                    if (annotation instanceof PDAnnotationLink link && link.getAction() instanceof PDActionURI uri) {
+                        uris.add(uri.getURI());
+                    }
+                }
+            }
+        }
+        return uris;
+    }
+
+    private static Slide slide(String imageUrl) {
+        return new Slide(SlideType.KEY_VISUAL, "Mars", "The red planet.", imageUrl, "NASA");
+    }
+}
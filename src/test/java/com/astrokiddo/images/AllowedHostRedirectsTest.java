@@ -0,0 +1,59 @@
+package com.astrokiddo.images;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AllowedHostRedirectsTest {
+
+    private static final String SOURCE = "http://apod.nasa.gov/apod/image/2401/moon.jpg";
+
+    private final AllowedHostRedirects redirects =
+            new AllowedHostRedirects(List.of("images-assets.nasa.gov", "apod.nasa.gov"));
+
+    @Test
+    void followsRedirectsBetweenAllowedHosts() {
+        assertTrue(follows(301, "https://apod.nasa.gov/apod/image/2401/moon.jpg"));
+        assertTrue(follows(302, "https://IMAGES-ASSETS.nasa.gov/image/PIA1/PIA1~orig.jpg"));
+        assertTrue(follows(308, "/apod/image/2401/moon_large.jpg"));
+    }
+
+    @Test
+    void refusesRedirectsOffTheAllowList() {
+        assertFalse(follows(302, "http://169.254.169.254/latest/meta-data/"));
+        assertFalse(follows(302, "http://localhost:8080/actuator"));
+        assertFalse(follows(307, "https://apod.nasa.gov.evil.example/moon.jpg"));
+        assertFalse(follows(302, "https://user@apod.nasa.gov/moon.jpg"));
+        assertFalse(follows(302, "file:///etc/passwd"));
+        assertFalse(follows(302, "//internal.example/moon.jpg"));
+    }
+
+    @Test
+    void ignoresMalformedOrMissingLocationsAndOtherStatuses() {
+        assertFalse(follows(302, "http://apod.nasa.gov/a b|c"));
+        assertFalse(follows(302, null));
+        assertFalse(follows(200, "https://apod.nasa.gov/apod/image/2401/moon.jpg"));
+    }
+
+    private boolean follows(int status, String location) {
+        HttpClientRequest request = mock(HttpClientRequest.class);
+        when(request.resourceUrl()).thenReturn(SOURCE);
+        HttpClientResponse response = mock(HttpClientResponse.class);
+        when(response.status()).thenReturn(HttpResponseStatus.valueOf(status));
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        if (location != null) {
+            headers.set(HttpHeaderNames.LOCATION, location);
+        }
+        when(response.responseHeaders()).thenReturn(headers);
+        return redirects.test(request, response);
+    }
+}
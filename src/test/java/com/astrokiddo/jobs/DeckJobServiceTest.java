@@ -0,0 +1,104 @@
+package com.astrokiddo.jobs;
+
+import com.astrokiddo.config.GenerationProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.store.DeckSnapshot;
+import com.astrokiddo.store.DeckStore;
+import com.astrokiddo.web.JsonPayload;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeckJobServiceTest {
+
+    private static final Duration RETENTION = Duration.ofMillis(100);
+
+    private final LessonGeneratorService generator = mock(LessonGeneratorService.class);
+    private final Sinks.One<DeckSnapshot> generation = Sinks.one();
+    private final DeckJobService service;
+
+    DeckJobServiceTest() {
+        GenerationProperties properties = new GenerationProperties();
+        properties.getJobs().setRetention(RETENTION);
+        when(generator.generate(any())).thenReturn(generation.asMono());
+        service = new DeckJobService(generator, mock(DeckStore.class), properties);
+    }
+
+    @Test
+    void jobRunningLongerThanTheRetentionIsStillFound() throws InterruptedException {
+        DeckJob job = service.submit(request("mars"), JobPriority.INTERACTIVE);
+        Thread.sleep(RETENTION.multipliedBy(3).toMillis());
+
+        assertEquals(JobStatus.RUNNING, service.get(job.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void finishedJobIsKeptForTheRetentionCountedFromCompletion() throws InterruptedException {
+        DeckJob job = service.submit(request("mars"), JobPriority.INTERACTIVE);
+        Thread.sleep(RETENTION.multipliedBy(3).toMillis());
+        generation.tryEmitValue(snapshot());
+
+        DeckJob done = service.get(job.getId()).orElseThrow();
+        assertEquals(JobStatus.DONE, done.getStatus());
+        assertEquals("deck-1", done.getDeckId());
+
+        Thread.sleep(RETENTION.multipliedBy(3).toMillis());
+        assertTrue(service.get(job.getId()).isEmpty());
+    }
+
+    @Test
+    void failedJobIsKeptForTheRetentionToo() {
+        DeckJob job = service.submit(request("mars"), JobPriority.INTERACTIVE);
+        generation.tryEmitError(new IllegalStateException("boom"));
+
+        DeckJob failed = service.get(job.getId()).orElseThrow();
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals("boom", failed.getError());
+    }
+
+    @Test
+    void longQueueOfJobsCompletingSynchronouslyDrainsWithoutRecursing() {
+        int jobs = 10_000;
+        GenerationProperties properties = new GenerationProperties();
+        properties.getJobs().setQueueCapacity(jobs);
+        properties.getJobs().setMaxConcurrent(1);
+        LessonGeneratorService cached = mock(LessonGeneratorService.class);
+        Sinks.One<DeckSnapshot> first = Sinks.one();
+        // the first job holds the only slot until everything else is queued, then the rest are cache hits
+        when(cached.generate(any())).thenReturn(first.asMono(), Mono.just(snapshot()));
+        DeckJobService service = new DeckJobService(cached, mock(DeckStore.class), properties);
+
+        List<DeckJob> submitted = new ArrayList<>();
+        for (int i = 0; i < jobs; i++) {
+            submitted.add(service.submit(request("topic " + i), JobPriority.BATCH));
+        }
+        assertEquals(jobs - 1, service.queued());
+        first.tryEmitValue(snapshot());
+
+        assertTrue(submitted.stream().allMatch(job -> job.getStatus() == JobStatus.DONE));
+        assertEquals(0, service.queued());
+        assertEquals(0, service.running());
+    }
+
+    private static DeckSnapshot snapshot() {
+        return new DeckSnapshot("deck-1", "mars", Instant.now(), JsonPayload.of("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static GenerateDeckRequestDto request(String topic) {
+        GenerateDeckRequestDto req = new GenerateDeckRequestDto();
+        req.setTopic(topic);
+        return req;
+    }
+}
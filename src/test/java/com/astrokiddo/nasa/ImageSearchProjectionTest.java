@@ -0,0 +1,165 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageSearchProjectionTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void keepsTheFieldsDeckBuildingReads() {
+        String json = response(42, item("PIA1", "Crab Nebula", "\"A supernova remnant.\"", keywords(2),
+                "\"date_created\": \"2005-03-01T00:00:00Z\", \"center\": \"JPL\""));
+
+        for (ImageSearchResponseDto result : bothWays(json, 12)) {
+            assertEquals(42, result.getCollection().getMetadata().getTotalHits());
+            ImageSearchResponseDto.Item item = result.getCollection().getItems().get(0);
+            assertEquals("https://images-assets.nasa.gov/image/PIA1/collection.json", item.getHref());
+            ImageSearchResponseDto.Data data = item.getData().get(0);
+            assertEquals("Crab Nebula", data.getTitle());
+            assertEquals("A supernova remnant.", data.getDescription());
+            assertEquals("PIA1", data.getNasaId());
+            assertEquals("JPL", data.getCenter());
+            assertEquals(Instant.parse("2005-03-01T00:00:00Z"), data.getDateCreated());
+            assertEquals(List.of("k0", "k1"), data.getKeywords());
+            assertEquals("https://images-assets.nasa.gov/image/PIA1/PIA1~thumb.jpg", item.getLinks().get(0).getHref());
+            assertEquals("image", item.getLinks().get(0).getRender());
+        }
+    }
+
+    @Test
+    void stopsAtTheLimitWithoutParsingTheRest() {
+        // anything after the second item is malformed, so parsing it would throw
+        String json = "{\"collection\": {\"items\": [" + item("PIA1", "one", "\"d\"", keywords(1), null) + ", "
+                + item("PIA2", "two", "\"d\"", keywords(1), null) + ", {\"href\": ]]] not json";
+
+        for (ImageSearchResponseDto result : bothWays(json, 2)) {
+            assertEquals(List.of("one", "two"), titles(result));
+        }
+        ImageSearchProjection streaming = new ImageSearchProjection(factory, 2);
+        streaming.feed(utf8(json));
+        assertTrue(streaming.isFinished());
+    }
+
+    @Test
+    void skipsNestedUnknownFields() {
+        String unknown = "\"extra\": {\"data\": [{\"title\": \"wrong\"}], \"links\": [{\"href\": \"wrong\"}]}, "
+                + "\"album\": [[\"nested\", {\"title\": \"wrong\"}]], \"location\": {\"title\": \"wrong\"}";
+        String json = "{\"collection\": {\"version\": \"1.0\", \"links\": [{\"href\": \"next page\"}], "
+                + "\"items\": [" + item("PIA1", "right", "\"d\"", keywords(1), unknown) + "], "
+                + "\"metadata\": {\"total_hits\": 7, \"nested\": {\"total_hits\": 99}}}, "
+                + "\"trailer\": {\"collection\": {\"items\": []}}}";
+
+        for (ImageSearchResponseDto result : bothWays(json, 12)) {
+            assertEquals(List.of("right"), titles(result));
+            ImageSearchResponseDto.Item item = result.getCollection().getItems().get(0);
+            assertEquals(1, item.getLinks().size());
+            assertNotEquals("wrong", item.getLinks().get(0).getHref());
+            assertEquals(7, result.getCollection().getMetadata().getTotalHits());
+        }
+    }
+
+    @Test
+    void chunkBoundariesInsideTokensDoNotChangeTheResult() {
+        String json = response(3, item("PIA1", "Ünïcode title ✨", "\"A \\\"quoted\\\" description\"", keywords(3),
+                "\"date_created\": \"2005-03-01T00:00:00Z\""), item("PIA2", "second", "\"d\"", keywords(1), null));
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        ImageSearchProjection byteAtATime = new ImageSearchProjection(factory, 12);
+        for (int i = 0; i < bytes.length; i++) {
+            byteAtATime.feed(ByteBuffer.wrap(bytes, i, 1));
+        }
+
+        ImageSearchResponseDto whole = ImageSearchProjection.project(factory, new ByteArrayInputStream(bytes), 12);
+        ImageSearchResponseDto split = byteAtATime.result();
+        assertEquals(titles(whole), titles(split));
+        assertEquals("Ünïcode title ✨", titles(split).get(0));
+        assertEquals("A \"quoted\" description", split.getCollection().getItems().get(0).getData().get(0).getDescription());
+        assertEquals(3, split.getCollection().getItems().get(0).getData().get(0).getKeywords().size());
+        assertEquals(3, split.getCollection().getMetadata().getTotalHits());
+    }
+
+    @Test
+    void capsKeywordsAndDescription() {
+        String longDescription = "\"" + "x".repeat(ImageSearchProjection.MAX_DESCRIPTION * 3) + "\"";
+        String json = response(1, item("PIA1", "one", longDescription, keywords(ImageSearchProjection.MAX_KEYWORDS + 5), null));
+
+        for (ImageSearchResponseDto result : bothWays(json, 12)) {
+            ImageSearchResponseDto.Data data = result.getCollection().getItems().get(0).getData().get(0);
+            assertEquals(ImageSearchProjection.MAX_DESCRIPTION, data.getDescription().length());
+            assertEquals(ImageSearchProjection.MAX_KEYWORDS, data.getKeywords().size());
+            assertEquals("k0", data.getKeywords().get(0));
+        }
+    }
+
+    @Test
+    void itemsWithoutAUsableLinkAreDropped() {
+        String noLinks = "{\"href\": \"x\", \"data\": [{\"title\": \"no link\"}], \"links\": [{\"href\": \" \"}]}";
+        String json = "{\"collection\": {\"items\": [" + noLinks + ", " + item("PIA1", "linked", "null", keywords(0), null) + "]}}";
+
+        for (ImageSearchResponseDto result : bothWays(json, 12)) {
+            assertEquals(List.of("linked"), titles(result));
+            assertNull(result.getCollection().getItems().get(0).getData().get(0).getDescription());
+        }
+    }
+
+    @Test
+    void malformedInputFails() {
+        String json = "{\"collection\": {\"items\": [{\"href\": }]}}";
+
+        assertThrows(UncheckedIOException.class, () -> new ImageSearchProjection(factory, 12).feed(utf8(json)));
+        assertThrows(UncheckedIOException.class, () -> ImageSearchProjection.project(factory,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 12));
+    }
+
+    private List<ImageSearchResponseDto> bothWays(String json, int limit) {
+        ImageSearchProjection streaming = new ImageSearchProjection(factory, limit);
+        streaming.feed(utf8(json));
+        return List.of(streaming.result(),
+                ImageSearchProjection.project(factory, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), limit));
+    }
+
+    private static String response(int totalHits, String... items) {
+        return "{\"collection\": {\"version\": \"1.0\", \"items\": [" + String.join(", ", items) + "], "
+                + "\"metadata\": {\"total_hits\": " + totalHits + "}}}";
+    }
+
+    private static String item(String nasaId, String title, String description, List<String> keywords, String extra) {
+        StringJoiner words = new StringJoiner(", ", "[", "]");
+        keywords.forEach(k -> words.add("\"" + k + "\""));
+        String base = "https://images-assets.nasa.gov/image/" + nasaId + "/";
+        return "{\"href\": \"" + base + "collection.json\", \"data\": [{\"nasa_id\": \"" + nasaId + "\", "
+                + "\"title\": \"" + title + "\", \"description\": " + description + ", \"keywords\": " + words
+                + (extra != null ? ", " + extra : "") + "}, {\"title\": \"second data entry\"}], "
+                + "\"links\": [{\"href\": \"" + base + nasaId + "~thumb.jpg\", \"rel\": \"preview\", \"render\": \"image\"}]}";
+    }
+
+    private static List<String> keywords(int count) {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keywords.add("k" + i);
+        }
+        return keywords;
+    }
+
+    private static List<String> titles(ImageSearchResponseDto result) {
+        return result.getCollection().getItems().stream().map(item -> item.getData().get(0).getTitle()).toList();
+    }
+
+    private static ByteBuffer utf8(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
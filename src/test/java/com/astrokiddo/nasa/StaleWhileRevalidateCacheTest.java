@@ -0,0 +1,167 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.resilience.UpstreamUnavailableException;
+import com.astrokiddo.store.SegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidateCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    void missIsFetchedOnceAndThenServedFromCache() {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofHours(1)), null);
+
+        expect(cache.get("mars", fetching("red")), "red");
+        expect(cache.get("mars", fetching("not fetched")), "red");
+
+        assertEquals(1, fetches.get());
+        assertTrue(cache.contains("mars"));
+    }
+
+    @Test
+    void staleValueIsServedWhileItIsRefreshedInTheBackground() throws InterruptedException {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofMillis(1)), null);
+        expect(cache.get("mars", fetching("old")), "old");
+        Thread.sleep(10);
+
+        expect(cache.get("mars", fetching("new")), "old");
+
+        assertEquals(2, fetches.get());
+        assertEquals("new", cache.peek("mars").orElseThrow());
+    }
+
+    @Test
+    void failedRefreshKeepsTheStaleValue() throws InterruptedException {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofMillis(1)), null);
+        expect(cache.get("mars", fetching("old")), "old");
+        Thread.sleep(10);
+
+        expect(cache.get("mars", failing()), "old");
+
+        assertEquals("old", cache.peek("mars").orElseThrow());
+        assertEquals(1.0, fallbacks("stale"));
+    }
+
+    @Test
+    void failedFetchAnswersEmptyAndSuppressesTheKeyForTheNegativeTtl() {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofHours(1)), null);
+
+        expect(cache.get("mars", failing()), "");
+        expect(cache.get("mars", fetching("not fetched while suppressed")), "");
+
+        assertEquals(1, fetches.get());
+        assertFalse(cache.contains("mars"));
+        assertEquals(1.0, fallbacks("upstream-error"));
+        assertEquals(1.0, fallbacks("suppressed"));
+    }
+
+    @Test
+    void callRejectedByTheLocalGuardDoesNotSuppressTheKey() {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofHours(1)), null);
+
+        expect(cache.get("mars", rejected()), "");
+        expect(cache.get("mars", fetching("red")), "red");
+
+        assertEquals(2, fetches.get());
+        assertEquals(1.0, fallbacks("upstream-unavailable"));
+        assertEquals(0.0, fallbacks("suppressed"));
+    }
+
+    @Test
+    void unusableAnswerIsNotCached() {
+        StaleWhileRevalidateCache<String> cache = cache(policy(Duration.ofHours(1)), null);
+
+        expect(cache.get("mars", fetching("")), "");
+
+        assertFalse(cache.contains("mars"));
+        assertFalse(cache.offer("venus", ""));
+        assertTrue(cache.offer("venus", "hot"));
+        assertEquals("hot", cache.peek("venus").orElseThrow());
+    }
+
+    @Test
+    void suppressionEndsAfterTheNegativeTtl() throws InterruptedException {
+        NasaProperties.CachePolicy policy = policy(Duration.ofHours(1));
+        policy.setNegativeTtl(Duration.ofMillis(20));
+        StaleWhileRevalidateCache<String> cache = cache(policy, null);
+        expect(cache.get("mars", failing()), "");
+        Thread.sleep(40);
+
+        expect(cache.get("mars", fetching("red")), "red");
+    }
+
+    @Test
+    void entriesWrittenThroughToDiskArePromotedByALaterInstance(@TempDir Path dir) throws IOException {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        try (NasaDiskTier<String> disk = new NasaDiskTier<>(
+                new SegmentLog(dir, 64 * 1024, 1024 * 1024, Duration.ofDays(1), 16, 0.5), smile, String.class)) {
+            expect(cache(policy(Duration.ofHours(1)), disk).get("mars", fetching("red")), "red");
+
+            StaleWhileRevalidateCache<String> restarted = cache(policy(Duration.ofHours(1)), disk);
+            expect(restarted.get("mars", fetching("not fetched")), "red");
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    private StaleWhileRevalidateCache<String> cache(NasaProperties.CachePolicy policy, NasaDiskTier<String> disk) {
+        return new StaleWhileRevalidateCache<>("apod", Caffeine.newBuilder().build(), policy,
+                value -> !value.isEmpty(), () -> "", disk, new PipelineMetrics(registry));
+    }
+
+    private static NasaProperties.CachePolicy policy(Duration refreshAfter) {
+        NasaProperties.CachePolicy policy = new NasaProperties.CachePolicy();
+        policy.setMaxEntries(100);
+        policy.setRefreshAfter(refreshAfter);
+        policy.setExpireAfter(Duration.ofDays(1));
+        return policy;
+    }
+
+    private Supplier<Mono<String>> fetching(String value) {
+        return () -> Mono.fromSupplier(() -> {
+            fetches.incrementAndGet();
+            return value;
+        });
+    }
+
+    private Supplier<Mono<String>> failing() {
+        return () -> Mono.defer(() -> {
+            fetches.incrementAndGet();
+            return Mono.error(new IllegalStateException("NASA is down"));
+        });
+    }
+
+    private Supplier<Mono<String>> rejected() {
+        return () -> Mono.defer(() -> {
+            fetches.incrementAndGet();
+            return Mono.error(new UpstreamUnavailableException("nasa-apod", "concurrency limit 4 reached"));
+        });
+    }
+
+    private static void expect(Mono<String> result, String value) {
+        StepVerifier.create(result).expectNext(value).verifyComplete();
+    }
+
+    private double fallbacks(String reason) {
+        var counter = registry.find(PipelineMetrics.FALLBACK_COUNTER).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
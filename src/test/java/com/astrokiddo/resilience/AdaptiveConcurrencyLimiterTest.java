@@ -0,0 +1,75 @@
+package com.astrokiddo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void refusesCallsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void droppedCallHalvesTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 3, 10, 2.0);
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void latencyWellAboveTheBaselineBacksOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 2.0);
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT);
+        int before = limiter.getLimit();
+
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT * 5);
+
+        assertTrue(limiter.getLimit() < before);
+    }
+
+    @Test
+    void steadyLatencyUnderLoadGrowsTheLimitUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6, 2.0);
+        for (int i = 0; i < 500; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every permit so the limit is the bottleneck
+            }
+            limiter.onSuccess(RTT);
+        }
+
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void ignoredCallLeavesTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 1, 10, 2.0);
+        limiter.tryAcquire();
+        limiter.onIgnored();
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,133 @@
+package com.astrokiddo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensOnceTheFailureRateIsReachedOverTheMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "below the minimum number of calls");
+
+        succeed(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void staysClosedWhileFailuresAreRare() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1);
+        for (int i = 0; i < 20; i++) {
+            succeed(breaker);
+            succeed(breaker);
+            fail(breaker);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertNotNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void halfOpenAllowsTrialCallsAndClosesAfterTheySucceed() throws InterruptedException {
+        CircuitBreaker breaker = opened(Duration.ofMillis(20), 2);
+        Thread.sleep(40);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CircuitBreaker.Permission first = breaker.tryAcquirePermission();
+        CircuitBreaker.Permission second = breaker.tryAcquirePermission();
+        assertTrue(first.isTrial());
+        assertTrue(second.isTrial());
+        assertNull(breaker.tryAcquirePermission(), "only the configured number of trial calls");
+
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedTrialCallReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = opened(Duration.ofMillis(20), 2);
+        Thread.sleep(40);
+
+        breaker.onFailure(breaker.tryAcquirePermission());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasedTrialPermitCanBeUsedAgain() throws InterruptedException {
+        CircuitBreaker breaker = opened(Duration.ofMillis(20), 1);
+        Thread.sleep(40);
+
+        CircuitBreaker.Permission trial = breaker.tryAcquirePermission();
+        assertNotNull(trial);
+        assertNull(breaker.tryAcquirePermission());
+        breaker.releasePermission(trial);
+        assertNotNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void neutralTrialOutcomeDoesNotCloseTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = opened(Duration.ofMillis(20), 1);
+        Thread.sleep(40);
+
+        breaker.releasePermission(breaker.tryAcquirePermission());
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void callAdmittedBeforeTheCircuitOpenedIsNotATrialCall() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofMillis(20), 1);
+        CircuitBreaker.Permission slow = breaker.tryAcquirePermission();
+        fail(breaker);
+        fail(breaker);
+        Thread.sleep(40);
+        CircuitBreaker.Permission trial = breaker.tryAcquirePermission();
+
+        breaker.onSuccess(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(), "a late success from before opening");
+        assertFalse(slow.isTrial());
+        breaker.onFailure(trial);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void lateOutcomesFromAnEarlierStateAreIgnored() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofMinutes(1), 1);
+        CircuitBreaker.Permission late = breaker.tryAcquirePermission();
+        fail(breaker);
+        fail(breaker);
+
+        breaker.onFailure(late);
+        breaker.releasePermission(late);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.onSuccess(breaker.tryAcquirePermission());
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.onFailure(breaker.tryAcquirePermission());
+    }
+
+    private static CircuitBreaker opened(Duration openDuration, int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, openDuration, halfOpenCalls);
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
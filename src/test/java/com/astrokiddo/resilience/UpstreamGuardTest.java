@@ -0,0 +1,122 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+
+    @Test
+    void slowCallTimesOutInsideTheGuardBeforeTheCallerDeadline() {
+        UpstreamGuard guard = new UpstreamGuard("ai", settings(Duration.ofMillis(50)));
+
+        // the caller's own deadline is longer, as enrichment's is around the AI call
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.protect(Mono.never()).timeout(Duration.ofSeconds(5)))
+                    .expectError(TimeoutException.class)
+                    .verify(Duration.ofSeconds(2));
+        }
+
+        assertEquals(2, guard.getLimit(), "each timeout halves the limit");
+        assertEquals(0, guard.getInFlight());
+        assertTrue(guard.isOpen());
+        StepVerifier.create(guard.protect(Mono.just("late")))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+    }
+
+    @Test
+    void callerGivingUpOnAStreamPastTheCallTimeoutCountsAsADrop() {
+        UpstreamGuard guard = new UpstreamGuard("ai", settings(Duration.ofMillis(50)));
+        // each element arrives within the timeout, but the stream as a whole outlasts it
+        Flux<Long> trickle = Flux.interval(Duration.ofMillis(20));
+
+        StepVerifier.create(guard.protect(trickle).take(Duration.ofMillis(150)))
+                .thenConsumeWhile(tick -> true)
+                .verifyComplete();
+
+        assertEquals(4, guard.getLimit());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    @Test
+    void cancelBeforeTheCallTimeoutIsNeutral() {
+        UpstreamGuard guard = new UpstreamGuard("ai", settings(Duration.ofSeconds(5)));
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(guard.protect(Mono.never()).timeout(Duration.ofMillis(10)))
+                    .expectError(TimeoutException.class)
+                    .verify(Duration.ofSeconds(2));
+        }
+
+        assertEquals(8, guard.getLimit());
+        assertEquals(0, guard.getInFlight());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void errorsThatAreNotTheUpstreamsFaultDoNotOpenTheCircuit() {
+        UpstreamGuard guard = new UpstreamGuard("ai", settings(null));
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(guard.protect(Mono.error(new IllegalArgumentException("bad schema"))))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+        }
+
+        assertEquals(8, guard.getLimit());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void clientErrorOnATrialCallLeavesTheCircuitHalfOpen() throws InterruptedException {
+        ResilienceProperties.Upstream settings = settings(null);
+        settings.setOpenDuration(Duration.ofMillis(20));
+        settings.setHalfOpenCalls(1);
+        UpstreamGuard guard = new UpstreamGuard("images", settings);
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.protect(Mono.error(new TimeoutException())))
+                    .expectError(TimeoutException.class)
+                    .verify();
+        }
+        assertTrue(guard.isOpen());
+        Thread.sleep(40);
+
+        StepVerifier.create(guard.protect(Mono.error(WebClientResponseException.create(404, "Not Found",
+                        HttpHeaders.EMPTY, new byte[0], null))))
+                .expectError(WebClientResponseException.class)
+                .verify();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, guard.getState(), "a 404 says nothing about NASA's health");
+
+        StepVerifier.create(guard.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void callsBeyondTheLimitAreRejected() {
+        ResilienceProperties.Upstream settings = settings(null);
+        settings.setInitialLimit(1);
+        UpstreamGuard guard = new UpstreamGuard("ai", settings);
+
+        StepVerifier.create(Mono.zip(guard.protect(Mono.delay(Duration.ofMillis(50))),
+                        guard.protect(Mono.just(1L))))
+                .expectError(UpstreamUnavailableException.class)
+                .verify(Duration.ofSeconds(2));
+        assertEquals(0, guard.getInFlight());
+    }
+
+    private static ResilienceProperties.Upstream settings(Duration callTimeout) {
+        ResilienceProperties.Upstream settings = new ResilienceProperties.Upstream(8, 20, callTimeout);
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(2);
+        settings.setOpenDuration(Duration.ofMinutes(1));
+        return settings;
+    }
+}
@@ -0,0 +1,119 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.dto.ImageSearchResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageRankerTest {
+
+    private final ImageRanker ranker = new ImageRanker();
+
+    @Test
+    void titleMatchBeatsKeywordMatchBeatsNoMatch() {
+        List<ImageSearchResponseDto.Item> items = List.of(
+                item("A1", "Saturn rings", List.of("planet")),
+                item("A2", "Hubble deep field", List.of("Nebula")),
+                item("A3", "The Crab Nebula", List.of()));
+
+        assertEquals(List.of("A3", "A2", "A1"), ids(ranker.rank("crab nebula", items, 3)));
+    }
+
+    @Test
+    void keepsOnlyTheBestLimitItemsInScoreOrder() {
+        List<ImageSearchResponseDto.Item> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(item("B" + i, i % 5 == 0 ? "Mars rover" : "Something else", List.of()));
+        }
+
+        assertEquals(List.of("B0", "B5", "B10"), ids(ranker.rank("mars", items, 3)));
+    }
+
+    @Test
+    void duplicateImageIsKeptOnceWithItsBestScore() {
+        ImageSearchResponseDto.Item weak = item("C1", "Unrelated", List.of());
+        ImageSearchResponseDto.Item strong = item("C1", "Jupiter storm", List.of());
+        List<ImageSearchResponseDto.Item> items = List.of(weak, item("C2", "Other", List.of()), strong);
+
+        List<ImageSearchResponseDto.Item> ranked = ranker.rank("jupiter", items, 3);
+
+        assertEquals(List.of("C1", "C2"), ids(ranked));
+        assertSame(strong, ranked.get(0));
+    }
+
+    @Test
+    void renderableImageLinkOutranksAnItemWithoutOne() {
+        ImageSearchResponseDto.Item noImage = item("D1", "Moon", List.of());
+        noImage.getLinks().get(0).setRender(null);
+        noImage.getLinks().get(0).setHref("https://images-assets.nasa.gov/video/D1/D1.mp4");
+        List<ImageSearchResponseDto.Item> items = List.of(noImage, item("D2", "Moon", List.of()));
+
+        assertEquals(List.of("D2", "D1"), ids(ranker.rank("moon", items, 2)));
+    }
+
+    @Test
+    void longerDescriptionAndNewerImageScoreHigher() {
+        ImageSearchResponseDto.Item old = item("E1", "Comet", List.of());
+        old.getData().get(0).setDateCreated(Instant.parse("1970-01-01T00:00:00Z"));
+        ImageSearchResponseDto.Item described = item("E2", "Comet", List.of());
+        described.getData().get(0).setDescription("A comet's tail always points away from the Sun. ".repeat(10));
+
+        assertEquals(List.of("E2", "E1"), ids(ranker.rank("comet", List.of(old, described), 2)));
+    }
+
+    @Test
+    void earlierPositionWinsATie() {
+        List<ImageSearchResponseDto.Item> items = List.of(item("F1", "Venus", List.of()), item("F2", "Venus", List.of()));
+
+        assertEquals(List.of("F1", "F2"), ids(ranker.rank("venus", items, 2)));
+    }
+
+    @Test
+    void emptyOrMissingInputRanksNothing() {
+        assertTrue(ranker.rank("mars", null, 3).isEmpty());
+        assertTrue(ranker.rank("mars", List.of(), 3).isEmpty());
+        assertTrue(ranker.rank("mars", List.of(item("G1", "Mars", List.of())), 0).isEmpty());
+        assertEquals(1, ranker.rank(null, Arrays.asList(null, item("G1", "Mars", List.of())), 3).size());
+    }
+
+    @Test
+    void termsAreDistinctWordsOfThreeOrMoreCharacters() {
+        List<String> terms = Arrays.stream(ImageRanker.terms("The Sun, the SUN and an X-ray of M87"))
+                .map(ImageRanker.Term::lower)
+                .toList();
+
+        assertEquals(List.of("the", "sun", "and", "ray", "m87"), terms);
+    }
+
+    @Test
+    void termMatchesLowerCapitalizedAndUpperSpellings() {
+        ImageRanker.Term term = ImageRanker.Term.of("nebula");
+
+        assertTrue(term.foundIn("a nebula"));
+        assertTrue(term.foundIn("Nebula"));
+        assertTrue(term.foundIn("NEBULA"));
+        assertFalse(term.foundIn("NeBuLa"));
+        assertFalse(term.foundIn(null));
+    }
+
+    private static ImageSearchResponseDto.Item item(String nasaId, String title, List<String> keywords) {
+        ImageSearchResponseDto.Data data = new ImageSearchResponseDto.Data();
+        data.setNasaId(nasaId);
+        data.setTitle(title);
+        data.setKeywords(keywords);
+        ImageSearchResponseDto.Link link = new ImageSearchResponseDto.Link();
+        link.setHref("https://images-assets.nasa.gov/image/" + nasaId + "/" + nasaId + "~thumb.jpg");
+        link.setRender("image");
+        return new ImageSearchResponseDto.Item("https://images-assets.nasa.gov/image/" + nasaId + "/collection.json",
+                new ArrayList<>(List.of(data)), new ArrayList<>(List.of(link)));
+    }
+
+    private static List<String> ids(List<ImageSearchResponseDto.Item> items) {
+        return items.stream().map(item -> item.getData().get(0).getNasaId()).toList();
+    }
+}
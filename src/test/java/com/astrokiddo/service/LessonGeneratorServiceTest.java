@@ -0,0 +1,66 @@
+package com.astrokiddo.service;
+
+import com.astrokiddo.ai.CloudflareAiRecords;
+import com.astrokiddo.ai.CloudflareAiService;
+import com.astrokiddo.config.GenerationProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.metrics.PipelineMetrics;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.store.DeckCodec;
+import com.astrokiddo.store.DeckSnapshot;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LessonGeneratorServiceTest {
+
+    private final NasaReactiveCache cache = mock(NasaReactiveCache.class);
+    private final CloudflareAiService aiService = mock(CloudflareAiService.class);
+    private final DeckCodec codec = new DeckCodec(JsonMapper.builder().findAndAddModules().build());
+    private final LessonGeneratorService service = new LessonGeneratorService(cache, aiService,
+            new GenerationProperties(), new TopicPopularity(), new PipelineMetrics(new SimpleMeterRegistry()), codec);
+
+    @Test
+    void coalescedRequestsShareInputsFetchedForTheNormalizedTopic() {
+        Sinks.One<CloudflareAiRecords.EnrichmentResponse> enrichment = Sinks.one();
+        when(cache.searchImages(anyString(), any(), any(), any())).thenReturn(Mono.empty());
+        when(aiService.enrich(anyString(), any())).thenReturn(enrichment.asMono());
+
+        AtomicReference<DeckSnapshot> leader = new AtomicReference<>();
+        AtomicReference<DeckSnapshot> follower = new AtomicReference<>();
+        service.generate(request("  Saturn's Rings", " 3 ")).subscribe(leader::set);
+        service.generate(request("SATURN'S  RINGS", "3")).subscribe(follower::set);
+        enrichment.tryEmitValue(new CloudflareAiRecords.EnrichmentResponse("Ice in orbit!", null, null, null, null,
+                null, null, null));
+
+        verify(aiService, times(1)).enrich("saturn's rings", "3");
+        verify(cache, times(1)).searchImages("saturn's rings", "image", null, null);
+        LessonDeck first = codec.thaw(leader.get());
+        LessonDeck second = codec.thaw(follower.get());
+        assertEquals("Saturn's Rings", first.getTopic());
+        assertEquals("SATURN'S  RINGS", second.getTopic());
+        assertEquals("Ice in orbit!", first.getSlides().get(0).getText());
+        assertEquals(first.getSlides().get(0).getText(), second.getSlides().get(0).getText());
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    private static GenerateDeckRequestDto request(String topic, String gradeLevel) {
+        GenerateDeckRequestDto req = new GenerateDeckRequestDto();
+        req.setTopic(topic);
+        req.setGradeLevel(gradeLevel);
+        return req;
+    }
+}
@@ -0,0 +1,80 @@
+package com.astrokiddo.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    @Test
+    void concurrentCallersForOneKeyShareASingleCall() {
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = flights.execute("mars", () -> counted(upstream.asMono()));
+        Mono<String> second = flights.execute("mars", () -> counted(Mono.just("not used")));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> {
+                    assertEquals(1, flights.inFlight());
+                    upstream.tryEmitValue("red planet");
+                })
+                .assertNext(both -> {
+                    assertEquals("red planet", both.getT1());
+                    assertEquals("red planet", both.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, subscriptions.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        StepVerifier.create(flights.execute("mars", () -> counted(Mono.just("first")))).expectNext("first").verifyComplete();
+        StepVerifier.create(flights.execute("mars", () -> counted(Mono.just("second")))).expectNext("second").verifyComplete();
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotCached() {
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = flights.execute("mars", () -> counted(upstream.asMono()));
+        Mono<String> second = flights.execute("mars", () -> counted(Mono.just("not used")));
+
+        StepVerifier.create(Mono.zipDelayError(first.onErrorReturn("failed"), second.onErrorReturn("failed")))
+                .then(() -> upstream.tryEmitError(new IllegalStateException("boom")))
+                .assertNext(both -> {
+                    assertEquals("failed", both.getT1());
+                    assertEquals("failed", both.getT2());
+                })
+                .verifyComplete();
+        assertEquals(0, flights.inFlight());
+
+        StepVerifier.create(flights.execute("mars", () -> counted(Mono.just("recovered"))))
+                .expectNext("recovered")
+                .verifyComplete();
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        Sinks.One<String> mars = Sinks.one();
+        StepVerifier.create(flights.execute("mars", () -> counted(mars.asMono())))
+                .then(() -> StepVerifier.create(flights.execute("venus", () -> counted(Mono.just("hot"))))
+                        .expectNext("hot")
+                        .verifyComplete())
+                .then(() -> mars.tryEmitValue("red"))
+                .expectNext("red")
+                .verifyComplete();
+        assertEquals(2, subscriptions.get());
+    }
+
+    private Mono<String> counted(Mono<String> work) {
+        return work.doOnSubscribe(s -> subscriptions.incrementAndGet());
+    }
+}
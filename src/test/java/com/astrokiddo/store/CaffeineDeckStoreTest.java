@@ -0,0 +1,121 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.config.DeckStoreProperties;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.model.SlideType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaffeineDeckStoreTest {
+
+    private final DeckCodec codec = new DeckCodec(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void demotedDeckIsPromotedBackWithItsBytes() {
+        CaffeineDeckStore store = new CaffeineDeckStore(props(1), codec, Runnable::run);
+        DeckSnapshot first = store.save(codec.freeze(deck("mars")));
+        DeckSnapshot second = store.save(codec.freeze(deck("venus")));
+
+        DeckSnapshot promoted = store.get(first.id()).orElseThrow();
+        assertArrayEquals(first.json().bytes(), promoted.json().bytes());
+        assertEquals(first.etag(), promoted.etag());
+        // promoting the first deck pushed the second one off-heap; it must come back as well
+        assertArrayEquals(second.json().bytes(), store.get(second.id()).orElseThrow().json().bytes());
+    }
+
+    @Test
+    void failedPromotionKeepsTheOffHeapCopy() {
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        DeckCodec flaky = new DeckCodec(new ObjectMapper().findAndRegisterModules()) {
+            @Override
+            public DeckSnapshot decode(ByteBuffer bytes) {
+                if (failOnce.getAndSet(false)) {
+                    throw new IllegalStateException("boom");
+                }
+                return super.decode(bytes);
+            }
+        };
+        CaffeineDeckStore store = new CaffeineDeckStore(props(1), flaky, Runnable::run);
+        DeckSnapshot first = store.save(flaky.freeze(deck("mars")));
+        store.save(flaky.freeze(deck("venus")));
+
+        assertThrows(IllegalStateException.class, () -> store.get(first.id()));
+        assertEquals(first.etag(), store.get(first.id()).orElseThrow().etag());
+    }
+
+    @Test
+    void concurrentReadersNeverMissADeckWhileItMovesBetweenTiers() throws Exception {
+        CaffeineDeckStore store = new CaffeineDeckStore(props(2), codec, Runnable::run);
+        List<DeckSnapshot> saved = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            saved.add(store.save(codec.freeze(deck("topic " + i))));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> misses = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                misses.add(pool.submit(() -> {
+                    int missed = 0;
+                    for (int i = 0; i < 5_000; i++) {
+                        DeckSnapshot expected = saved.get(ThreadLocalRandom.current().nextInt(saved.size()));
+                        if (store.get(expected.id()).filter(s -> s.etag().equals(expected.etag())).isEmpty()) {
+                            missed++;
+                        }
+                    }
+                    return missed;
+                }));
+            }
+            for (Future<Integer> missed : misses) {
+                assertEquals(0, missed.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownIdIsEmpty() {
+        CaffeineDeckStore store = new CaffeineDeckStore(props(1), codec, Runnable::run);
+        assertTrue(store.get("deck-missing").isEmpty());
+    }
+
+    @Test
+    void bothTiersReportCacheMetrics() {
+        CaffeineDeckStore store = new CaffeineDeckStore(props(1), codec, Runnable::run);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        DeckSnapshot first = store.save(codec.freeze(deck("mars")));
+        store.save(codec.freeze(deck("venus")));
+        store.get(first.id());
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "deck-store", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "deck-store-off-heap", "result", "hit").functionCounter().count());
+    }
+
+    private static DeckStoreProperties props(int maxEntries) {
+        DeckStoreProperties props = new DeckStoreProperties();
+        props.setMaxEntries(maxEntries);
+        props.getOffHeap().setEnabled(true);
+        return props;
+    }
+
+    private static LessonDeck deck(String topic) {
+        LessonDeck deck = new LessonDeck(topic);
+        deck.addSlide(new Slide(SlideType.KEY_VISUAL, topic, "All about " + topic + ".",
+                "https://images-assets.nasa.gov/image/PIA1/PIA1~thumb.jpg", "NASA"));
+        return deck;
+    }
+}
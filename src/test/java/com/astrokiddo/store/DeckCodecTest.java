@@ -0,0 +1,94 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.model.SlideType;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckCodecTest {
+
+    private final DeckCodec codec = new DeckCodec(JsonMapper.builder().findAndAddModules().build());
+
+    @Test
+    void thawedDeckMatchesTheFrozenOne() {
+        LessonDeck deck = deck("Saturn's rings");
+
+        DeckSnapshot snapshot = codec.freeze(deck);
+        LessonDeck thawed = codec.thaw(snapshot);
+
+        assertEquals(deck.getId(), snapshot.id());
+        assertEquals(deck.getTopic(), snapshot.topic());
+        assertEquals(deck.getCreatedAt(), snapshot.createdAt());
+        assertEquals(deck.getId(), thawed.getId());
+        assertEquals(deck.getCreatedAt(), thawed.getCreatedAt());
+        assertEquals(deck.getSlides().size(), thawed.getSlides().size());
+        assertEquals("Rings of ice", thawed.getSlides().get(0).getText());
+        assertArrayEquals(snapshot.json().bytes(), codec.freeze(thawed).json().bytes());
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterChangesToTheDeck() {
+        LessonDeck deck = deck("Mars");
+        DeckSnapshot snapshot = codec.freeze(deck);
+
+        deck.getSlides().get(0).setText("changed");
+        codec.thaw(snapshot).getSlides().get(0).setText("changed too");
+
+        assertEquals("Rings of ice", codec.thaw(snapshot).getSlides().get(0).getText());
+    }
+
+    @Test
+    void encodedRecordDecodesToTheSameSnapshot() {
+        DeckSnapshot snapshot = codec.freeze(deck("Ünïcode topic"));
+
+        DeckSnapshot decoded = codec.decode(ByteBuffer.wrap(codec.encode(snapshot)));
+
+        assertEquals(snapshot.id(), decoded.id());
+        assertEquals(snapshot.topic(), decoded.topic());
+        assertEquals(snapshot.createdAt().toEpochMilli(), decoded.createdAt().toEpochMilli());
+        assertEquals(snapshot.etag(), decoded.etag());
+        assertArrayEquals(snapshot.json().bytes(), decoded.json().bytes());
+    }
+
+    @Test
+    void missingCreationTimeAndTopicSurviveEncoding() {
+        LessonDeck deck = deck("Venus");
+        deck.setCreatedAt(null);
+        deck.setTopic(null);
+
+        DeckSnapshot decoded = codec.decode(ByteBuffer.wrap(codec.encode(codec.freeze(deck))));
+
+        assertNull(decoded.createdAt());
+        assertEquals("", decoded.topic());
+    }
+
+    @Test
+    void decodingLeavesTheCallersBufferUntouched() {
+        ByteBuffer record = ByteBuffer.wrap(codec.encode(codec.freeze(deck("Moon"))));
+
+        codec.decode(record);
+
+        assertEquals(0, record.position());
+    }
+
+    @Test
+    void recordsInAnyOtherFormatAreRejected() {
+        byte[] record = codec.encode(codec.freeze(deck("Moon")));
+        record[0] = 0;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.wrap(record)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(ByteBuffer.allocate(0)));
+    }
+
+    private static LessonDeck deck(String topic) {
+        LessonDeck deck = new LessonDeck(topic);
+        deck.addSlide(new Slide(SlideType.KEY_VISUAL, topic, "Rings of ice",
+                "https://images-assets.nasa.gov/image/PIA1/PIA1~thumb.jpg", "NASA"));
+        return deck;
+    }
+}
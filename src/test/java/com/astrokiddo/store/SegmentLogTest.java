@@ -0,0 +1,194 @@
+package com.astrokiddo.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path dir;
+
+    private SegmentLog log;
+
+    @AfterEach
+    void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Test
+    void reopenedLogServesTheLatestValueOfEveryKey() {
+        log = open();
+        for (int round = 0; round < 5; round++) {
+            for (int k = 0; k < 6; k++) {
+                log.append("k" + k, now(), value("k" + k + " round " + round));
+            }
+        }
+        log.close();
+
+        log = open();
+        assertEquals(6, log.size());
+        for (int k = 0; k < 6; k++) {
+            assertEquals("k" + k + " round 4", text(log.read("k" + k)));
+        }
+    }
+
+    @Test
+    void tornTailRecordIsDroppedAndItsSpaceReused() throws IOException {
+        log = open();
+        log.append("whole", now(), value("whole record"));
+        log.append("torn", now(), value("torn record"));
+        log.close();
+        corrupt(lastSegment(), "torn record");
+
+        log = open();
+        assertEquals("whole record", text(log.read("whole")));
+        assertTrue(log.read("torn").isEmpty());
+        log.append("after", now(), value("written after recovery"));
+        log.close();
+
+        log = open();
+        assertEquals("whole record", text(log.read("whole")));
+        assertEquals("written after recovery", text(log.read("after")));
+        assertTrue(log.read("torn").isEmpty());
+    }
+
+    @Test
+    void compactionMovesLiveKeysOutOfMostlyDeadSegments() throws IOException {
+        log = open();
+        for (int k = 0; k < 4; k++) {
+            log.append("k" + k, now(), value("first " + k));
+        }
+        // overwriting three of the four keys leaves the first segment mostly dead
+        for (int round = 0; round < 3; round++) {
+            for (int k = 0; k < 3; k++) {
+                log.append("k" + k, now(), value("round " + round + " " + k));
+            }
+        }
+        log.flush();
+        Path first = segments().get(0);
+
+        log.maintainNow();
+
+        assertFalse(Files.exists(first));
+        assertEquals("first 3", text(log.read("k3")));
+        log.close();
+
+        log = open();
+        assertEquals("first 3", text(log.read("k3")));
+        for (int k = 0; k < 3; k++) {
+            assertEquals("round 2 " + k, text(log.read("k" + k)));
+        }
+    }
+
+    @Test
+    void failedWriteIsRetriedUntilItSucceeds() throws Exception {
+        log = open();
+        log.append("before", now(), value("before the disk went away"));
+        log.flush();
+        removeDirectory();
+
+        // the next record does not fit the active segment, and rolling needs the missing directory
+        log.append("big", now(), new byte[SEGMENT_BYTES - 64]);
+        log.flush();
+        Files.createDirectories(dir);
+
+        awaitSegmentFiles();
+        assertEquals(0, log.failedWrites());
+        log.close();
+        log = open();
+        assertTrue(log.read("big").isPresent());
+    }
+
+    @Test
+    void writeThatKeepsFailingIsDroppedAndCounted() throws Exception {
+        log = open();
+        log.append("before", now(), value("before the disk went away"));
+        log.flush();
+        removeDirectory();
+
+        log.append("big", now(), new byte[SEGMENT_BYTES - 64]);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (log.failedWrites() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, log.failedWrites());
+        assertTrue(log.read("big").isEmpty(), "a dropped record must not be served from memory");
+        Files.createDirectories(dir);
+    }
+
+    private SegmentLog open() {
+        return new SegmentLog(dir, SEGMENT_BYTES, 64 * 1024, Duration.ofDays(1), 16, 0.5);
+    }
+
+    private void removeDirectory() throws IOException {
+        for (Path segment : segments()) {
+            Files.delete(segment);
+        }
+        Files.delete(dir);
+    }
+
+    private void awaitSegmentFiles() throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (segments().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        log.flush();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        List<Path> all = segments();
+        return all.get(all.size() - 1);
+    }
+
+    private static void corrupt(Path segment, String marker) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        byte[] needle = marker.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + needle.length <= bytes.length; i++) {
+            if (ByteBuffer.wrap(bytes, i, needle.length).equals(ByteBuffer.wrap(needle))) {
+                bytes[i] ^= 0x5A;
+                Files.write(segment, bytes);
+                return;
+            }
+        }
+        fail("marker not found in " + segment);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static byte[] value(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Optional<ByteBuffer> value) {
+        ByteBuffer buf = value.orElseThrow();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
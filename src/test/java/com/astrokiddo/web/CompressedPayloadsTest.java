@@ -0,0 +1,45 @@
+package com.astrokiddo.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedPayloadsTest {
+
+    @Test
+    void gzipIsAcceptedWhenListed() {
+        assertTrue(CompressedPayloads.acceptsGzip("gzip"));
+        assertTrue(CompressedPayloads.acceptsGzip("deflate, gzip, br"));
+        assertTrue(CompressedPayloads.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(CompressedPayloads.acceptsGzip(" GZip "));
+        assertTrue(CompressedPayloads.acceptsGzip("x-gzip"));
+    }
+
+    @Test
+    void zeroQualityRefusesGzip() {
+        assertFalse(CompressedPayloads.acceptsGzip("gzip;q=0"));
+        assertFalse(CompressedPayloads.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(CompressedPayloads.acceptsGzip("gzip;Q=0"));
+        assertTrue(CompressedPayloads.acceptsGzip("gzip;q=0.001"));
+        // an unreadable quality is ignored rather than treated as a refusal
+        assertTrue(CompressedPayloads.acceptsGzip("gzip;q=abc"));
+    }
+
+    @Test
+    void wildcardCoversGzipUnlessGzipIsNamed() {
+        assertTrue(CompressedPayloads.acceptsGzip("*"));
+        assertTrue(CompressedPayloads.acceptsGzip("br, *;q=0.1"));
+        assertFalse(CompressedPayloads.acceptsGzip("*;q=0"));
+        assertFalse(CompressedPayloads.acceptsGzip("gzip;q=0, *"));
+        assertTrue(CompressedPayloads.acceptsGzip("gzip, *;q=0"));
+    }
+
+    @Test
+    void missingOrOtherEncodingsDoNotAcceptGzip() {
+        assertFalse(CompressedPayloads.acceptsGzip(null));
+        assertFalse(CompressedPayloads.acceptsGzip(""));
+        assertFalse(CompressedPayloads.acceptsGzip("identity"));
+        assertFalse(CompressedPayloads.acceptsGzip("br, deflate"));
+        assertFalse(CompressedPayloads.acceptsGzip("gzipped"));
+    }
+}